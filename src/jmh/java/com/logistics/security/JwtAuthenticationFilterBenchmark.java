@@ -0,0 +1,95 @@
+package com.logistics.security;
+
+import com.logistics.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost the filter adds to every authenticated request: reading the bearer token, verifying it
+ * (a verified-claims cache hit after warmup), the revocation lookup, and building the principal
+ * and its authorities from the claims. Tokens carry their authorities, so the user store is
+ * never consulted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKey1234567890123456789012";
+
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, TimeUnit.HOURS.toMillis(1), 10_000,
+                beans.getBeanProvider(MeterRegistry.class));
+        TokenRevocationRegistry revocationRegistry = new TokenRevocationRegistry(provider,
+                beans.getBeanProvider(RedisTokenRevocationStore.class));
+        filter = new JwtAuthenticationFilter(provider, username -> {
+            throw new UsernameNotFoundException(username);
+        }, revocationRegistry, beans.getBeanProvider(MeterRegistry.class));
+
+        User user = new User();
+        user.setEmail("benchmark@example.com");
+        user.setRoles(Set.of("USER"));
+        user.setPermissions(Set.of("READ_SHIPMENTS", "READ_ORDERS"));
+        token = provider.generateToken(user);
+        // Another user's revocation, so the lookup searches a non-empty registry
+        revocationRegistry.revokeAll("other@example.com");
+    }
+
+    // One exchange per thread; the filter only reads the request
+    @State(Scope.Thread)
+    public static class Exchange {
+
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+        Authentication authentication;
+        // Takes the principal and clears the context, as the end of a request does
+        final FilterChain chain = (req, res) -> {
+            authentication = SecurityContextHolder.getContext().getAuthentication();
+            SecurityContextHolder.clearContext();
+        };
+
+        @Setup
+        public void setUp(JwtAuthenticationFilterBenchmark benchmark) {
+            request = new MockHttpServletRequest("GET", "/shipments");
+            request.addHeader("Authorization", "Bearer " + benchmark.token);
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Benchmark
+    public Authentication authenticate(Exchange exchange) throws Exception {
+        exchange.authentication = null;
+        filter.doFilterInternal(exchange.request, exchange.response, exchange.chain);
+        if (exchange.authentication == null) {
+            throw new IllegalStateException("token was not accepted");
+        }
+        return exchange.authentication;
+    }
+}
@@ -0,0 +1,73 @@
+package com.logistics.security;
+
+import com.logistics.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import javax.crypto.SecretKey;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one bearer token: the per-token parser the provider used to build,
+ * a verification with the shared parser, and a hit in the verified-claims cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKey1234567890123456789012";
+
+    private SecretKey key;
+    private JwtParser sharedParser;
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        sharedParser = Jwts.parser().verifyWith(key).build();
+        provider = new JwtTokenProvider(SECRET, TimeUnit.HOURS.toMillis(1), 10_000,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+
+        User user = new User();
+        user.setEmail("benchmark@example.com");
+        user.setRoles(Set.of("USER"));
+        user.setPermissions(Set.of("READ_SHIPMENTS", "READ_ORDERS"));
+        token = provider.generateToken(user);
+        provider.parseClaims(token);
+    }
+
+    @Benchmark
+    public Claims parserPerToken() {
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims sharedParser() {
+        return sharedParser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims verifiedCacheHit() {
+        return provider.parseClaims(token).orElseThrow();
+    }
+}
@@ -1,26 +1,48 @@
 package com.logistics.aspect;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.MDC;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.BaseStream;
 
+/**
+ * Times every controller, service and repository call into per-method counters. Arguments
+ * and results are only serialized for a sampled share of requests, for failures and for
+ * calls slower than the configured threshold, so unsampled requests pay for two clock
+ * reads and a few counter updates per layer. Collections, maps and pages are described by
+ * their size, and any other payload is serialized only up to the configured length.
+ */
 @Aspect
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class LoggingAspect {
 
     private final ObjectMapper objectMapper;
+    private final TracingProperties properties;
+    private final Map<Method, MethodTimings> timings = new ConcurrentHashMap<>();
+    // Whether the request on this thread is sampled is decided once, at its outermost traced call
+    private final ThreadLocal<Span> spans = ThreadLocal.withInitial(Span::new);
+
+    public LoggingAspect(ObjectMapper objectMapper, TracingProperties properties) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
 
     @Pointcut("within(com.logistics.controller..*)")
     public void controllerPointcut() {}
@@ -34,43 +56,148 @@ public class LoggingAspect {
     @Around("controllerPointcut() || servicePointcut() || repositoryPointcut()")
     public Object logMethodExecution(ProceedingJoinPoint joinPoint) throws Throwable {
         MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        String className = signature.getDeclaringType().getSimpleName();
-        String methodName = signature.getName();
-        String requestId = MDC.get("requestId");
-        
-        // Log method entry with parameters
-        try {
-            String params = Arrays.toString(joinPoint.getArgs());
-            log.info("[{}] Entering: {}.{}() with parameters: {}", 
-                    requestId, className, methodName, params);
-        } catch (Exception e) {
-            log.info("[{}] Entering: {}.{}() with parameters: [Failed to serialize]", 
-                    requestId, className, methodName);
+        MethodTimings methodTimings = timings.computeIfAbsent(signature.getMethod(), method -> timingsFor(signature));
+
+        Span span = spans.get();
+        if (span.depth++ == 0) {
+            span.sampled = ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+        }
+        if (span.sampled) {
+            log.info("[{}] Entering: {}() with parameters: {}",
+                    MDC.get("requestId"), methodTimings.getMethod(), describeArgs(joinPoint));
         }
-        
-        long startTime = System.currentTimeMillis();
+
+        long start = System.nanoTime();
         Object result = null;
+        Throwable failure = null;
         try {
-            // Execute the method
             result = joinPoint.proceed();
             return result;
         } catch (Throwable e) {
-            // Log exception
-            log.error("[{}] Exception in {}.{}() with error: {}", 
-                    requestId, className, methodName, e.getMessage(), e);
+            failure = e;
             throw e;
         } finally {
-            long executionTime = System.currentTimeMillis() - startTime;
-            
-            // Log method exit with result
-            try {
-                String resultStr = (result != null) ? objectMapper.writeValueAsString(result) : "null";
-                log.info("[{}] Exiting: {}.{}() with result: {} in {}ms", 
-                        requestId, className, methodName, resultStr, executionTime);
-            } catch (Exception e) {
-                log.info("[{}] Exiting: {}.{}() with result: [Failed to serialize] in {}ms", 
-                        requestId, className, methodName, executionTime);
+            long elapsed = System.nanoTime() - start;
+            methodTimings.record(elapsed, failure != null);
+            span.depth--;
+            if (failure != null) {
+                log.error("[{}] Exception in {}() with parameters: {} after {}ms with error: {}",
+                        MDC.get("requestId"), methodTimings.getMethod(), describeArgs(joinPoint),
+                        elapsed / 1_000_000, failure.getMessage(), failure);
+            } else if (span.depth == 0 && elapsed > properties.getSlowThreshold().toNanos()) {
+                // Only the outermost call is reported, its inner layers are already part of its time
+                log.warn("[{}] Slow call: {}() with parameters: {} returned {} in {}ms",
+                        MDC.get("requestId"), methodTimings.getMethod(), describeArgs(joinPoint),
+                        describeResult(result), elapsed / 1_000_000);
+            } else if (span.sampled) {
+                log.info("[{}] Exiting: {}() with result: {} in {}ms",
+                        MDC.get("requestId"), methodTimings.getMethod(), describeResult(result), elapsed / 1_000_000);
+            }
+        }
+    }
+
+    public Collection<MethodTimings> getTimings() {
+        return timings.values();
+    }
+
+    private MethodTimings timingsFor(MethodSignature signature) {
+        String packageName = signature.getDeclaringType().getPackageName();
+        String layer = packageName.substring(packageName.lastIndexOf('.') + 1);
+        return new MethodTimings(layer, signature.getDeclaringType().getSimpleName() + "." + signature.getName());
+    }
+
+    private String describeArgs(ProceedingJoinPoint joinPoint) {
+        Object[] args = joinPoint.getArgs();
+        StringBuilder description = new StringBuilder("[");
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                description.append(", ");
+            }
+            description.append(describe(args[i]));
+        }
+        return description.append(']').toString();
+    }
+
+    private String describeResult(Object result) {
+        return describe(result);
+    }
+
+    private String describe(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        // Serializing a stream would consume it before the caller can
+        if (value instanceof BaseStream<?, ?>) {
+            return "[Stream]";
+        }
+        // Containers are described by size, rendering their elements is what made this expensive
+        if (value instanceof Collection<?> collection) {
+            return value.getClass().getSimpleName() + "(size=" + collection.size() + ")";
+        }
+        if (value instanceof Map<?, ?> map) {
+            return value.getClass().getSimpleName() + "(size=" + map.size() + ")";
+        }
+        if (value instanceof Slice<?> slice) {
+            return value.getClass().getSimpleName() + "(page=" + slice.getNumber() + ", size=" + slice.getNumberOfElements() + ")";
+        }
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(value) + "]";
+        }
+        BoundedWriter writer = new BoundedWriter(properties.getMaxPayloadChars());
+        try {
+            objectMapper.writeValue(writer, value);
+        } catch (Exception e) {
+            if (!writer.isFull()) {
+                return "[" + value.getClass().getSimpleName() + "]";
             }
         }
+        return writer.isFull() ? writer + "... (truncated)" : writer.toString();
+    }
+
+    /**
+     * Keeps the first {@code max} characters written to it and then fails the write, which aborts
+     * serialization instead of rendering the rest of a large payload only to cut it off.
+     */
+    private static final class BoundedWriter extends Writer {
+        private final StringBuilder buffer = new StringBuilder();
+        private final int max;
+        private boolean full;
+
+        private BoundedWriter(int max) {
+            this.max = max;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            int room = max - buffer.length();
+            if (length > room) {
+                buffer.append(chars, offset, room);
+                full = true;
+                throw new IOException("Payload exceeds " + max + " chars");
+            }
+            buffer.append(chars, offset, length);
+        }
+
+        private boolean isFull() {
+            return full;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+
+    private static final class Span {
+        private int depth;
+        private boolean sampled;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package com.logistics.aspect;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call counters for one traced method. Created on the method's first call and only
+ * updated in place afterwards, so recording a span allocates nothing.
+ */
+public final class MethodTimings {
+
+    private final String layer;
+    private final String method;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    MethodTimings(String layer, String method) {
+        this.layer = layer;
+        this.method = method;
+    }
+
+    void record(long nanos, boolean failed) {
+        calls.increment();
+        totalNanos.add(nanos);
+        if (failed) {
+            errors.increment();
+        }
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public String getLayer() {
+        return layer;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+}
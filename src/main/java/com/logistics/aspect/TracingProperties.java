@@ -0,0 +1,20 @@
+package com.logistics.aspect;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.tracing")
+public class TracingProperties {
+
+    // Share of requests whose arguments and results are logged at every layer; timings are always recorded
+    private double sampleRate = 0.01;
+
+    // Outermost calls slower than this are logged with arguments and result whether sampled or not
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    // Serialization of an argument or result stops after this many characters
+    private int maxPayloadChars = 2_000;
+}
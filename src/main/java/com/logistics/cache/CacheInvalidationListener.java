@@ -0,0 +1,39 @@
+package com.logistics.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.io.IOException;
+
+/**
+ * Drops local entries when another pod evicts or clears a cache.
+ */
+@Slf4j
+public class CacheInvalidationListener implements MessageListener {
+
+    private final TwoLevelCacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final String instanceId;
+
+    public CacheInvalidationListener(TwoLevelCacheManager cacheManager, ObjectMapper objectMapper, String instanceId) {
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.instanceId = instanceId;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            CacheInvalidationMessage invalidation =
+                    objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+            if (instanceId.equals(invalidation.getOrigin())) {
+                return;
+            }
+            cacheManager.evictLocal(invalidation.getCacheName(), invalidation.getKey());
+        } catch (IOException e) {
+            log.warn("Ignoring malformed cache invalidation message: {}", e.getMessage());
+        }
+    }
+}
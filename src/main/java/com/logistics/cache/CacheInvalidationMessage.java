@@ -0,0 +1,10 @@
+package com.logistics.cache;
+
+import lombok.Data;
+
+@Data
+public class CacheInvalidationMessage {
+    private String origin;
+    private String cacheName;
+    private String key; // null means the whole cache was cleared
+}
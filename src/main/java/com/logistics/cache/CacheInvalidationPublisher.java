@@ -0,0 +1,46 @@
+package com.logistics.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.UUID;
+
+/**
+ * Broadcasts L1 invalidations to the other pods over Redis pub/sub.
+ */
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void publish(String cacheName, String key) {
+        CacheInvalidationMessage message = new CacheInvalidationMessage();
+        message.setOrigin(instanceId);
+        message.setCacheName(cacheName);
+        message.setKey(key);
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(message));
+        } catch (Exception e) {
+            // Remote L1 entries still expire on their own TTL, so a lost message only delays invalidation
+            log.warn("Failed to publish cache invalidation for {}::{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.logistics.cache;
+
+import com.logistics.util.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Targeted cache invalidation for the write paths. Evictions run after the surrounding
+ * transaction commits, so a concurrent read cannot re-cache the pre-commit state.
+ */
+@Slf4j
+@Component
+public class CacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final CacheTagIndex tagIndex;
+
+    public CacheInvalidator(CacheManager cacheManager, CacheTagIndex tagIndex) {
+        this.cacheManager = cacheManager;
+        this.tagIndex = tagIndex;
+    }
+
+    /**
+     * Evict a single entry by its cache key
+     */
+    public void evict(String cacheName, Object key) {
+        if (key == null) {
+            return;
+        }
+        afterCommit(() -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.evict(key);
+            }
+        });
+    }
+
+    /**
+     * Evict many entries of one cache with a single deferred action
+     */
+    public void evictAll(String cacheName, Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                for (Object key : keys) {
+                    if (key != null) {
+                        cache.evict(key);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Evict every entry that carries any of the given tags
+     */
+    public void evictTags(String... tags) {
+        afterCommit(() -> {
+            for (String tag : tags) {
+                for (CacheTagIndex.CacheEntryRef ref : tagIndex.removeTag(tag)) {
+                    Cache cache = cacheManager.getCache(ref.cacheName());
+                    if (cache != null) {
+                        cache.evict(ref.key());
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop whole caches whose entries can all be affected by a write (e.g. offset pages after an insert)
+     */
+    public void clear(String... cacheNames) {
+        afterCommit(() -> {
+            for (String cacheName : cacheNames) {
+                Cache cache = cacheManager.getCache(cacheName);
+                if (cache != null) {
+                    cache.clear();
+                }
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionHooks.afterCommit(() -> runSafely(action));
+    }
+
+    private void runSafely(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            // The write already committed; entries not evicted here still expire on their TTL
+            log.warn("Cache invalidation failed: {}", e.getMessage(), e);
+        }
+    }
+}
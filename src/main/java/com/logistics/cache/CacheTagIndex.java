@@ -0,0 +1,37 @@
+package com.logistics.cache;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Records which cache entries carry which tags.
+ */
+public interface CacheTagIndex {
+
+    void register(String cacheName, String key, Collection<String> tags);
+
+    /**
+     * Remove the tag and return the entries that carried it. The removal time is remembered
+     * for a while so fills that were in flight can tell they missed the eviction.
+     */
+    Set<CacheEntryRef> removeTag(String tag);
+
+    /**
+     * Latest removal time (epoch millis) among the given tags, or 0 if none was removed recently
+     */
+    long lastRemoved(Collection<String> tags);
+
+    record CacheEntryRef(String cacheName, String key) {
+
+        private static final String SEPARATOR = "::";
+
+        String encode() {
+            return cacheName + SEPARATOR + key;
+        }
+
+        static CacheEntryRef decode(String value) {
+            int separator = value.indexOf(SEPARATOR);
+            return new CacheEntryRef(value.substring(0, separator), value.substring(separator + SEPARATOR.length()));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.logistics.cache;
+
+import com.logistics.dto.InventoryItemDTO;
+import com.logistics.dto.OrderDTO;
+import com.logistics.dto.SearchPage;
+import com.logistics.dto.ShipmentDTO;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Tag vocabulary for dependency-based cache invalidation. Every cached entry is
+ * tagged with the ids of the entities it contains; list entries additionally get
+ * status/customer group tags scoped to their cache, so that a write can evict
+ * exactly the lists whose membership it changes.
+ */
+public final class CacheTags {
+
+    private CacheTags() {
+    }
+
+    public static String shipment(String id) {
+        return "shipment:" + id;
+    }
+
+    public static String inventoryItem(String id) {
+        return "inventoryItem:" + id;
+    }
+
+    public static String order(String id) {
+        return "order:" + id;
+    }
+
+    /**
+     * Lists in the given cache holding at least one entity with this status
+     */
+    public static String status(String cacheName, Object status) {
+        return cacheName + ":status:" + status;
+    }
+
+    /**
+     * Lists in the given cache holding at least one order for this customer
+     */
+    public static String customer(String cacheName, String customerId) {
+        return cacheName + ":customer:" + customerId;
+    }
+
+    /**
+     * Lists in the given cache holding at least one shipment of this order
+     */
+    public static String shipmentOrder(String cacheName, String orderId) {
+        return cacheName + ":order:" + orderId;
+    }
+
+    /**
+     * Searches in the given cache whose term starts with this (lower-cased) trigram. A row only
+     * matches a substring search if it contains the term's first trigram, so evicting the tags
+     * of every trigram in a row's searched fields reaches all searches it can join or leave.
+     */
+    public static String searchTrigram(String cacheName, String trigram) {
+        return cacheName + ":trigram:" + trigram;
+    }
+
+    /**
+     * Searches in the given cache for a term shorter than a trigram, matched as this (upper-cased) prefix
+     */
+    public static String searchPrefix(String cacheName, String prefix) {
+        return cacheName + ":prefix:" + prefix;
+    }
+
+    /**
+     * Every list entry of the given cache
+     */
+    public static String list(String cacheName) {
+        return cacheName + ":list";
+    }
+
+    /**
+     * Empty list entries of the given cache; these carry no entity tags, so any write
+     * that can add a member to a list must evict them too
+     */
+    public static String emptyList(String cacheName) {
+        return cacheName + ":empty";
+    }
+
+    static Set<String> resolve(String cacheName, Object value) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (value instanceof SearchPage<?> page && page.getMatchTag() != null) {
+            tags.add(page.getMatchTag());
+        }
+        if (value instanceof Iterable<?> elements) {
+            tags.add(list(cacheName));
+            boolean empty = true;
+            for (Object element : elements) {
+                empty = false;
+                addEntityTags(tags, element);
+                addGroupTags(tags, cacheName, element);
+            }
+            if (empty) {
+                tags.add(emptyList(cacheName));
+            }
+        } else {
+            addEntityTags(tags, value);
+        }
+        return tags;
+    }
+
+    private static void addEntityTags(Set<String> tags, Object element) {
+        if (element instanceof ShipmentDTO shipment) {
+            tags.add(shipment(shipment.getId()));
+        } else if (element instanceof InventoryItemDTO item) {
+            tags.add(inventoryItem(item.getId()));
+        } else if (element instanceof OrderDTO order) {
+            tags.add(order(order.getId()));
+        }
+    }
+
+    private static void addGroupTags(Set<String> tags, String cacheName, Object element) {
+        if (element instanceof ShipmentDTO shipment) {
+            tags.add(status(cacheName, shipment.getStatus()));
+            tags.add(shipmentOrder(cacheName, shipment.getOrderId()));
+        } else if (element instanceof OrderDTO order) {
+            tags.add(status(cacheName, order.getStatus()));
+            tags.add(customer(cacheName, order.getCustomerId()));
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.logistics.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.logistics.datasource.PrimaryReads;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single-flight guard for {@code @Cacheable(sync = true)} methods: concurrent misses for
+ * the same key wait on one in-flight load instead of each querying the database.
+ *
+ * <p>When early refresh is configured for the cache, a hit may also trigger a recompute
+ * shortly before the entry expires (probabilistic early expiration, "XFetch"). The chance
+ * grows as expiry approaches and with how long the last load took, so a hot entry is
+ * normally reloaded by one caller while everybody else keeps getting the cached value.
+ * A failed early refresh is logged and the cached value is served instead.
+ *
+ * <p>Waiting on another caller's load is bounded; a caller that times out loads the value
+ * itself, so one stuck load cannot hold every request for its key.
+ *
+ * <p>Loads read from the primary rather than a replica, so an entry evicted by a write is
+ * not refilled with the row as it was before that write. They also go through the layers
+ * below ({@link TaggingCache}, {@link TwoLevelCache}), which drop a loaded value instead of
+ * storing it when the key or one of its tags was evicted while it loaded.
+ */
+@Slf4j
+public class CoalescingCache implements Cache {
+
+    private final Cache delegate;
+    private final TwoLevelCacheProperties.EarlyRefreshSpec earlyRefresh;
+    private final Duration waitTimeout;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final com.github.benmanes.caffeine.cache.Cache<Object, LoadTiming> loadTimings;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder waitTimeouts = new LongAdder();
+
+    public CoalescingCache(Cache delegate, TwoLevelCacheProperties.EarlyRefreshSpec earlyRefresh,
+                           Duration waitTimeout) {
+        this.delegate = delegate;
+        this.earlyRefresh = earlyRefresh;
+        this.waitTimeout = waitTimeout;
+        this.loadTimings = earlyRefresh != null
+                ? Caffeine.newBuilder().maximumSize(earlyRefresh.getMaximumKeys()).expireAfterWrite(earlyRefresh.getTtl()).build()
+                : null;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return count(delegate.get(key));
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = delegate.get(key, type);
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = count(delegate.get(key));
+        if (cached != null) {
+            if (!shouldRefreshEarly(key)) {
+                return (T) cached.get();
+            }
+            earlyRefreshes.increment();
+        }
+        return (T) load(key, valueLoader, cached);
+    }
+
+    private Object load(Object key, Callable<?> valueLoader, ValueWrapper current) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            if (current != null) {
+                // Someone is already refreshing this entry; keep serving the current value
+                return current.get();
+            }
+            coalesced.increment();
+            return await(key, valueLoader, existing);
+        }
+
+        try {
+            long startNanos = System.nanoTime();
+            boolean[] loaded = new boolean[1];
+            Callable<Object> primaryLoad = () -> {
+                loaded[0] = true;
+                return PrimaryReads.call(valueLoader);
+            };
+            // Loading through the layers below keeps their guards against evictions that race the load.
+            // A miss re-checks the entry first, since the previous flight may have filled it meanwhile
+            Object value = current == null ? delegate.get(key, primaryLoad) : refresh(key, primaryLoad);
+            if (loaded[0]) {
+                if (value != null) {
+                    puts.increment();
+                }
+                loads.increment();
+                recordLoad(key, System.nanoTime() - startNanos);
+            }
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            // The layers below wrap loader failures; waiters and callers get the loader's own exception
+            Throwable failure = e instanceof ValueRetrievalException && e.getCause() != null ? e.getCause() : e;
+            if (current != null) {
+                // The entry is still valid; a failed refresh must not fail the request
+                refreshFailures.increment();
+                log.warn("Early refresh of {}::{} failed, serving the cached value: {}",
+                        getName(), key, failure.getMessage());
+                flight.complete(current.get());
+                return current.get();
+            }
+            flight.completeExceptionally(failure);
+            throw new ValueRetrievalException(key, valueLoader, failure);
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private Object refresh(Object key, Callable<Object> loader) {
+        if (delegate instanceof RefreshableCache refreshable) {
+            return refreshable.refresh(key, loader);
+        }
+        Object value;
+        try {
+            value = loader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, loader, e);
+        }
+        if (value != null) {
+            delegate.put(key, value);
+        }
+        return value;
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> flight) {
+        try {
+            return flight.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            waitTimeouts.increment();
+            // The stuck flight still fills the entry when it finishes, so this value is not cached
+            try {
+                return PrimaryReads.call(valueLoader);
+            } catch (Exception loadFailure) {
+                throw new ValueRetrievalException(key, valueLoader, loadFailure);
+            }
+        } catch (ExecutionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private boolean shouldRefreshEarly(Object key) {
+        if (loadTimings == null) {
+            return false;
+        }
+        LoadTiming timing = loadTimings.getIfPresent(key);
+        if (timing == null) {
+            return false;
+        }
+        // XFetch: refresh when now - delta * beta * ln(rand) passes the expiry; ln(rand) <= 0
+        double gapNanos = -timing.loadNanos() * earlyRefresh.getBeta() * Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.nanoTime() + gapNanos >= timing.expiresAtNanos();
+    }
+
+    private void recordLoad(Object key, long loadNanos) {
+        if (loadTimings != null) {
+            loadTimings.put(key, new LoadTiming(loadNanos, System.nanoTime() + earlyRefresh.getTtl().toNanos()));
+        }
+    }
+
+    private ValueWrapper count(ValueWrapper cached) {
+        (cached != null ? hits : misses).increment();
+        return cached;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        puts.increment();
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getEarlyRefreshes() {
+        return earlyRefreshes.sum();
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures.sum();
+    }
+
+    public long getWaitTimeouts() {
+        return waitTimeouts.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    private record LoadTiming(long loadNanos, long expiresAtNanos) {
+    }
+}
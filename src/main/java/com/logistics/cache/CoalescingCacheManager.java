@@ -0,0 +1,64 @@
+package com.logistics.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class CoalescingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final TwoLevelCacheProperties properties;
+    // Null when metrics are not available; caches then only feed the stats endpoint
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CoalescingCache> caches = new ConcurrentHashMap<>();
+
+    public CoalescingCacheManager(CacheManager delegate, TwoLevelCacheProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        CoalescingCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        TwoLevelCacheProperties.EarlyRefreshSpec earlyRefresh = properties.getEarlyRefresh().get(name);
+        if (earlyRefresh != null && earlyRefresh.getTtl() == null) {
+            earlyRefresh = null;
+        }
+        CoalescingCache created = new CoalescingCache(target, earlyRefresh, properties.getCoalescedWaitTimeout());
+        CoalescingCache existing = caches.putIfAbsent(name, created);
+        if (existing != null) {
+            return existing;
+        }
+        // Caches are created on first use, so each registers its meters then
+        if (meterRegistry != null) {
+            new CoalescingCacheMetrics(created).bindTo(meterRegistry);
+        }
+        return created;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    /**
+     * Caches that have been used since startup, for the stats endpoint
+     */
+    public List<CoalescingCache> getCoalescingCaches() {
+        return List.copyOf(caches.values());
+    }
+}
@@ -0,0 +1,80 @@
+package com.logistics.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Publishes a {@link CoalescingCache}'s counters under Micrometer's standard cache meters
+ * ({@code cache.gets} by result, {@code cache.puts}) plus its load and coalescing counts.
+ * Hits and misses are counted at this outermost layer, so they reflect what callers see
+ * across both cache levels.
+ */
+public class CoalescingCacheMetrics extends CacheMeterBinder<CoalescingCache> {
+
+    public CoalescingCacheMetrics(CoalescingCache cache) {
+        super(cache, cache.getName(), Tags.empty());
+    }
+
+    @Override
+    protected Long size() {
+        return null;
+    }
+
+    @Override
+    protected long hitCount() {
+        CoalescingCache cache = getCache();
+        return cache != null ? cache.getHits() : 0L;
+    }
+
+    @Override
+    protected Long missCount() {
+        CoalescingCache cache = getCache();
+        return cache != null ? cache.getMisses() : null;
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return null;
+    }
+
+    @Override
+    protected long putCount() {
+        CoalescingCache cache = getCache();
+        return cache != null ? cache.getPuts() : 0L;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        CoalescingCache cache = getCache();
+        if (cache == null) {
+            return;
+        }
+        FunctionCounter.builder("cache.loads", cache, CoalescingCache::getLoads)
+                .tags(getTagsWithCacheName())
+                .description("Values computed by the cached method")
+                .register(registry);
+        FunctionCounter.builder("cache.coalesced", cache, CoalescingCache::getCoalesced)
+                .tags(getTagsWithCacheName())
+                .description("Misses that waited on another caller's in-flight load")
+                .register(registry);
+        FunctionCounter.builder("cache.early.refreshes", cache, CoalescingCache::getEarlyRefreshes)
+                .tags(getTagsWithCacheName())
+                .description("Hits that recomputed the entry shortly before expiry")
+                .register(registry);
+        FunctionCounter.builder("cache.coalesced.timeouts", cache, CoalescingCache::getWaitTimeouts)
+                .tags(getTagsWithCacheName())
+                .description("Coalesced misses that gave up waiting and loaded the value themselves")
+                .register(registry);
+        FunctionCounter.builder("cache.early.refresh.failures", cache, CoalescingCache::getRefreshFailures)
+                .tags(getTagsWithCacheName())
+                .description("Early refreshes that failed and kept serving the cached value")
+                .register(registry);
+        Gauge.builder("cache.in.flight", cache, CoalescingCache::getInFlight)
+                .tags(getTagsWithCacheName())
+                .description("Loads currently in progress")
+                .register(registry);
+    }
+}
@@ -0,0 +1,59 @@
+package com.logistics.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tag index for the single-pod Caffeine cache. Tags expire with the entries they point to.
+ */
+public class InMemoryCacheTagIndex implements CacheTagIndex {
+
+    // Longer than any cache load is expected to take
+    private static final Duration REMOVAL_RETENTION = Duration.ofMinutes(10);
+
+    private final Cache<String, Set<CacheEntryRef>> tags;
+    private final Cache<String, Long> removedAt;
+
+    public InMemoryCacheTagIndex(Duration ttl) {
+        this.tags = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+        this.removedAt = Caffeine.newBuilder()
+                .expireAfterWrite(REMOVAL_RETENTION)
+                .build();
+    }
+
+    @Override
+    public void register(String cacheName, String key, Collection<String> entryTags) {
+        CacheEntryRef ref = new CacheEntryRef(cacheName, key);
+        for (String tag : entryTags) {
+            // compute() counts as a write, so the tag lives at least as long as its newest entry
+            tags.asMap().compute(tag, (ignored, refs) -> {
+                Set<CacheEntryRef> updated = refs != null ? refs : ConcurrentHashMap.newKeySet();
+                updated.add(ref);
+                return updated;
+            });
+        }
+    }
+
+    @Override
+    public Set<CacheEntryRef> removeTag(String tag) {
+        removedAt.put(tag, System.currentTimeMillis());
+        Set<CacheEntryRef> refs = tags.asMap().remove(tag);
+        return refs != null ? refs : Set.of();
+    }
+
+    @Override
+    public long lastRemoved(Collection<String> entryTags) {
+        long latest = 0L;
+        for (Long removed : removedAt.getAllPresent(entryTags).values()) {
+            latest = Math.max(latest, removed);
+        }
+        return latest;
+    }
+}
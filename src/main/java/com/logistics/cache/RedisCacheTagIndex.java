@@ -0,0 +1,87 @@
+package com.logistics.cache;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tag index shared by all pods, so a write on one pod can evict pages cached by another.
+ * Each tag is a Redis set of "cacheName::key" members that expires with the L2 entries.
+ */
+public class RedisCacheTagIndex implements CacheTagIndex {
+
+    private static final String PREFIX = "cache-tag:";
+    private static final String REMOVED_PREFIX = "cache-tag-removed:";
+    // Longer than any cache load is expected to take
+    private static final Duration REMOVAL_RETENTION = Duration.ofMinutes(10);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public RedisCacheTagIndex(StringRedisTemplate redisTemplate, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public void register(String cacheName, String key, Collection<String> tags) {
+        String member = new CacheEntryRef(cacheName, key).encode();
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                for (String tag : tags) {
+                    operations.opsForSet().add(PREFIX + tag, member);
+                    operations.expire(PREFIX + tag, ttl);
+                }
+                return null;
+            }
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<CacheEntryRef> removeTag(String tag) {
+        // Read and delete in one transaction so members added concurrently are not lost
+        List<Object> results = redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            public List<Object> execute(RedisOperations operations) throws DataAccessException {
+                operations.multi();
+                operations.opsForSet().members(PREFIX + tag);
+                operations.delete(PREFIX + tag);
+                operations.opsForValue().set(REMOVED_PREFIX + tag,
+                        Long.toString(System.currentTimeMillis()), REMOVAL_RETENTION);
+                return operations.exec();
+            }
+        });
+        Set<CacheEntryRef> refs = new HashSet<>();
+        if (results != null && !results.isEmpty() && results.get(0) instanceof Set<?> members) {
+            for (Object member : members) {
+                refs.add(CacheEntryRef.decode(member.toString()));
+            }
+        }
+        return refs;
+    }
+
+    @Override
+    public long lastRemoved(Collection<String> tags) {
+        List<String> keys = tags.stream().map(tag -> REMOVED_PREFIX + tag).toList();
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        long latest = 0L;
+        if (values != null) {
+            for (String value : values) {
+                if (value != null) {
+                    latest = Math.max(latest, Long.parseLong(value));
+                }
+            }
+        }
+        return latest;
+    }
+}
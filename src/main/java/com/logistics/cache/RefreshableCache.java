@@ -0,0 +1,19 @@
+package com.logistics.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A cache that can load a key it may already hold. The load is stored under the same guards
+ * as a miss loaded through {@link Cache#get(Object, Callable)}, so a value read before a
+ * concurrent eviction of the key is returned but not cached.
+ */
+public interface RefreshableCache extends Cache {
+
+    /**
+     * Load the value, store it unless the key was evicted meanwhile, and return it.
+     * Unlike {@code get(key, loader)}, an existing entry does not short-circuit the load.
+     */
+    <T> T refresh(Object key, Callable<T> valueLoader);
+}
@@ -0,0 +1,139 @@
+package com.logistics.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Records the tags of every value written through it. Keys are normalised to strings
+ * so that entries found through the tag index can be evicted on any cache backend.
+ * Tags are registered only after the value is stored, so an eviction always finds either
+ * the tag entry or nothing to evict. A value whose tags were removed while it was loading or
+ * being stored is evicted again: it may have been read before the write that removed them, and
+ * an eviction landing between the store and the registration would otherwise miss it.
+ */
+public class TaggingCache implements RefreshableCache {
+
+    // Removal times come from the clocks of different pods
+    private static final long CLOCK_SKEW_MS = 1000L;
+
+    private final Cache delegate;
+    private final CacheTagIndex tagIndex;
+
+    public TaggingCache(Cache delegate, CacheTagIndex tagIndex) {
+        this.delegate = delegate;
+        this.tagIndex = tagIndex;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(toKey(key));
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(toKey(key), type);
+    }
+
+    // Hits were registered when they were loaded. A miss is loaded outside the delegate's own
+    // get(key, loader), which for Caffeine would run the load inside a map lock
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(toKey(key));
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        return refresh(key, valueLoader);
+    }
+
+    @Override
+    public <T> T refresh(Object key, Callable<T> valueLoader) {
+        String cacheKey = toKey(key);
+        long loadStart = System.currentTimeMillis();
+        T value;
+        if (delegate instanceof RefreshableCache refreshable) {
+            value = refreshable.refresh(cacheKey, valueLoader);
+        } else {
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            if (value != null) {
+                delegate.put(cacheKey, value);
+            }
+        }
+        register(cacheKey, value, loadStart);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String cacheKey = toKey(key);
+        long putStart = System.currentTimeMillis();
+        delegate.put(cacheKey, value);
+        register(cacheKey, value, putStart);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        String cacheKey = toKey(key);
+        long putStart = System.currentTimeMillis();
+        ValueWrapper existing = delegate.putIfAbsent(cacheKey, value);
+        if (existing == null) {
+            register(cacheKey, value, putStart);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(toKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(toKey(key));
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    // Registers the stored value's tags, then evicts it again if any of them was removed since the given time
+    private void register(String key, Object value, long since) {
+        if (value == null) {
+            return;
+        }
+        Set<String> tags = CacheTags.resolve(getName(), value);
+        if (tags.isEmpty()) {
+            return;
+        }
+        tagIndex.register(getName(), key, tags);
+        if (tagIndex.lastRemoved(tags) >= since - CLOCK_SKEW_MS) {
+            delegate.evict(key);
+        }
+    }
+
+    private static String toKey(Object key) {
+        return key instanceof String stringKey ? stringKey : String.valueOf(key);
+    }
+}
@@ -0,0 +1,38 @@
+package com.logistics.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TaggingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final CacheTagIndex tagIndex;
+    private final Map<String, TaggingCache> caches = new ConcurrentHashMap<>();
+
+    public TaggingCacheManager(CacheManager delegate, CacheTagIndex tagIndex) {
+        this.delegate = delegate;
+        this.tagIndex = tagIndex;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TaggingCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, ignored -> new TaggingCache(target, tagIndex));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
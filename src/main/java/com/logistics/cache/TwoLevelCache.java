@@ -0,0 +1,202 @@
+package com.logistics.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caffeine near-cache (L1) in front of a shared Redis cache (L2). Reads are served
+ * from L1 when possible; evictions go to both levels and are broadcast so that the
+ * other pods drop their L1 copies as well.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache implements RefreshableCache {
+
+    // Keys hash onto a fixed set of invalidation generations, so memory stays bounded while
+    // an eviction only affects fills that raced with it on the same stripe
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache;
+    private final Cache remoteCache;
+    private final CacheInvalidationPublisher publisher;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache,
+                         Cache remoteCache,
+                         CacheInvalidationPublisher publisher) {
+        super(false);
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object value = localCache.getIfPresent(localKey);
+        if (value != null) {
+            return value;
+        }
+        long generation = generation(localKey);
+        ValueWrapper remote = remoteCache.get(key);
+        if (remote == null || remote.get() == null) {
+            return null;
+        }
+        fillLocal(localKey, remote.get(), generation);
+        return remote.get();
+    }
+
+    /**
+     * Read-through without holding any lock during the Redis read or the load. Caffeine's
+     * {@code get(key, fn)} computes inside a map bin lock, which would pin a virtual thread's
+     * carrier for the whole load; concurrent misses for one key are already collapsed by
+     * {@link CoalescingCache} in front of this cache. A value loaded while the key was
+     * evicted is returned to the caller but not cached, since it may predate the write.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object cached = localCache.getIfPresent(localKey);
+        if (cached != null) {
+            return (T) cached;
+        }
+        long generation = generation(localKey);
+        ValueWrapper remote = remoteCache.get(key);
+        if (remote != null && remote.get() != null) {
+            fillLocal(localKey, remote.get(), generation);
+            return (T) remote.get();
+        }
+        return load(key, localKey, generation, valueLoader);
+    }
+
+    @Override
+    public <T> T refresh(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        return load(key, localKey, generation(localKey), valueLoader);
+    }
+
+    private <T> T load(Object key, String localKey, long generation, Callable<T> valueLoader) {
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value != null && generation(localKey) == generation) {
+            remoteCache.put(key, value);
+            if (generation(localKey) != generation) {
+                remoteCache.evict(key);
+                return value;
+            }
+            fillLocal(localKey, value, generation);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        remoteCache.put(key, value);
+        localCache.put(localKey(key), value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remoteCache.putIfAbsent(key, value);
+        Object current = existing != null ? existing.get() : value;
+        if (current != null) {
+            localCache.put(localKey(key), current);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        invalidateGeneration(localKey);
+        remoteCache.evict(key);
+        localCache.invalidate(localKey);
+        publisher.publish(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        String localKey = localKey(key);
+        invalidateGeneration(localKey);
+        boolean evicted = remoteCache.evictIfPresent(key);
+        localCache.invalidate(localKey);
+        publisher.publish(name, localKey);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        invalidateAllGenerations();
+        remoteCache.clear();
+        localCache.invalidateAll();
+        publisher.publish(name, null);
+    }
+
+    void evictLocal(String key) {
+        if (key == null) {
+            invalidateAllGenerations();
+            localCache.invalidateAll();
+        } else {
+            invalidateGeneration(key);
+            localCache.invalidate(key);
+        }
+    }
+
+    // Put, then re-check: an eviction that bumped the generation before the re-check is seen
+    // here, and one that bumps it afterwards invalidates the entry itself
+    private void fillLocal(String localKey, Object value, long generation) {
+        if (generation(localKey) != generation) {
+            return;
+        }
+        localCache.put(localKey, value);
+        if (generation(localKey) != generation) {
+            localCache.asMap().remove(localKey, value);
+        }
+    }
+
+    private long generation(String localKey) {
+        return generations.get(stripe(localKey));
+    }
+
+    private void invalidateGeneration(String localKey) {
+        generations.incrementAndGet(stripe(localKey));
+    }
+
+    private void invalidateAllGenerations() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+    }
+
+    private static int stripe(String localKey) {
+        return Math.floorMod(localKey.hashCode(), GENERATION_STRIPES);
+    }
+
+    // Keys travel between pods as strings; this matches how RedisCache renders them
+    private String localKey(Object key) {
+        return key instanceof String stringKey ? stringKey : String.valueOf(key);
+    }
+}
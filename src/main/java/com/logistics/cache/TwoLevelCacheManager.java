@@ -0,0 +1,64 @@
+package com.logistics.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds a {@link TwoLevelCache} for every cache of the backing Redis cache manager,
+ * sizing each L1 from {@link TwoLevelCacheProperties}.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final TwoLevelCacheProperties properties;
+    private final CacheInvalidationPublisher publisher;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                TwoLevelCacheProperties properties,
+                                CacheInvalidationPublisher publisher) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.properties = properties;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> createCache(cacheName, remoteCache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    void evictLocal(String cacheName, String key) {
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(key);
+        }
+    }
+
+    private TwoLevelCache createCache(String name, Cache remoteCache) {
+        TwoLevelCacheProperties.LocalCacheSpec spec = properties.localSpecFor(name);
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getTtl())
+                .build();
+        return new TwoLevelCache(name, localCache, remoteCache, publisher);
+    }
+}
@@ -0,0 +1,65 @@
+package com.logistics.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class TwoLevelCacheProperties {
+
+    // Redis pub/sub channel used to tell other pods to drop their local entries
+    private String invalidationChannel = "logistics:cache-invalidation";
+
+    // Local (L1) settings applied to every cache unless overridden below
+    private LocalCacheSpec local = new LocalCacheSpec(10_000L, Duration.ofSeconds(60));
+
+    // Per-cache L1 overrides keyed by cache name
+    private Map<String, LocalCacheSpec> caches = new HashMap<>();
+
+    // How long tag index entries live; must cover the longest shared (L2) entry TTL
+    private Duration tagTtl = Duration.ofMinutes(30);
+
+    // How long a miss waits on another caller's in-flight load before loading the value itself
+    private Duration coalescedWaitTimeout = Duration.ofSeconds(5);
+
+    // Probabilistic early refresh for hot entries, keyed by cache name; caches not listed only coalesce misses
+    private Map<String, EarlyRefreshSpec> earlyRefresh = new HashMap<>();
+
+    public LocalCacheSpec localSpecFor(String cacheName) {
+        LocalCacheSpec override = caches.get(cacheName);
+        if (override == null) {
+            return local;
+        }
+        return new LocalCacheSpec(
+                override.getMaximumSize() != null ? override.getMaximumSize() : local.getMaximumSize(),
+                override.getTtl() != null ? override.getTtl() : local.getTtl());
+    }
+
+    @Data
+    public static class LocalCacheSpec {
+        private Long maximumSize;
+        private Duration ttl;
+
+        public LocalCacheSpec() {
+        }
+
+        public LocalCacheSpec(Long maximumSize, Duration ttl) {
+            this.maximumSize = maximumSize;
+            this.ttl = ttl;
+        }
+    }
+
+    @Data
+    public static class EarlyRefreshSpec {
+        // Lifetime of the entries at the level that falls through to the database
+        private Duration ttl;
+        // Higher values refresh earlier; 1.0 is the usual XFetch setting
+        private double beta = 1.0;
+        // Upper bound on keys whose load timings are tracked
+        private long maximumKeys = 10_000L;
+    }
+}
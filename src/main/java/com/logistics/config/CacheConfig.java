@@ -1,5 +1,20 @@
 package com.logistics.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.cache.CacheInvalidationListener;
+import com.logistics.cache.CacheInvalidationPublisher;
+import com.logistics.cache.CacheTagIndex;
+import com.logistics.cache.CoalescingCacheManager;
+import com.logistics.cache.InMemoryCacheTagIndex;
+import com.logistics.cache.RedisCacheTagIndex;
+import com.logistics.cache.TaggingCacheManager;
+import com.logistics.cache.TwoLevelCacheManager;
+import com.logistics.cache.TwoLevelCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
@@ -9,40 +24,95 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import java.time.Duration;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(TwoLevelCacheProperties.class)
 public class CacheConfig {
 
+    // Coalesces concurrent misses per key, then records entity/status tags on every cached value
+    // so writes can evict only what they affect
     @Bean
-    @ConditionalOnBean(RedisConnectionFactory.class)
     @Primary
-    public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
+    public CoalescingCacheManager cacheManager(ObjectProvider<TwoLevelCacheManager> twoLevelCacheManager,
+                                               CacheTagIndex cacheTagIndex,
+                                               TwoLevelCacheProperties properties,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        CacheManager target = twoLevelCacheManager.getIfAvailable();
+        if (target == null) {
+            target = caffeineCacheManager();
+        }
+        return new CoalescingCacheManager(new TaggingCacheManager(target, cacheTagIndex), properties,
+            meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate redisTemplate,
+                                                                 ObjectMapper objectMapper,
+                                                                 TwoLevelCacheProperties properties) {
+        return new CacheInvalidationPublisher(redisTemplate, objectMapper, properties.getInvalidationChannel());
+    }
+
+    // Per-pod Caffeine L1 in front of the shared Redis L2
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public TwoLevelCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                                  TwoLevelCacheProperties properties,
+                                                  CacheInvalidationPublisher publisher) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
             .entryTtl(Duration.ofMinutes(30))
             .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
             .cacheDefaults(config)
-            .withCacheConfiguration("inventory", 
+            .withCacheConfiguration("inventory",
                 RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(10)))
-            .withCacheConfiguration("users", 
+            .withCacheConfiguration("users",
                 RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(15)))
             .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(redisCacheManager, properties, publisher);
     }
 
     @Bean
-    @ConditionalOnMissingBean(RedisConnectionFactory.class)
-    @Primary
-    public CacheManager caffeineCacheManager() {
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager,
+                                                                            CacheInvalidationPublisher publisher,
+                                                                            ObjectMapper objectMapper) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+            new CacheInvalidationListener(cacheManager, objectMapper, publisher.getInstanceId()),
+            new ChannelTopic(publisher.getChannel()));
+        return container;
+    }
+
+    // Shared tag index so an eviction on one pod finds entries cached by another
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public CacheTagIndex redisCacheTagIndex(StringRedisTemplate redisTemplate, TwoLevelCacheProperties properties) {
+        return new RedisCacheTagIndex(redisTemplate, properties.getTagTtl());
+    }
+
+    @Bean
+    @ConditionalOnExpression("'${spring.cache.type:caffeine}' != 'redis'")
+    public CacheTagIndex inMemoryCacheTagIndex() {
+        return new InMemoryCacheTagIndex(Duration.ofMinutes(5));
+    }
+
+    private CacheManager caffeineCacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
         cacheManager.setCaffeine(Caffeine.newBuilder()
             .expireAfterWrite(Duration.ofMinutes(5))
             .maximumSize(100));
         return cacheManager;
     }
-} 
\ No newline at end of file
+}
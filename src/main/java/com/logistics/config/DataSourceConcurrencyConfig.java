@@ -0,0 +1,46 @@
+package com.logistics.config;
+
+import com.logistics.datasource.ConcurrencyLimitProperties;
+import com.logistics.datasource.ConcurrencyLimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+// Puts a fair connection limiter in front of the auto-configured pool; with replica routing
+// enabled DataSourceRoutingConfig limits each of its pools instead
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class DataSourceConcurrencyConfig {
+
+    // Static so it is registered before the DataSource bean is created. The properties are bound
+    // here rather than injected, since post-processors are instantiated ahead of regular beans
+    @Bean
+    public static BeanPostProcessor connectionLimitPostProcessor(Environment environment,
+                                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource pool)) {
+                    return bean;
+                }
+                ConcurrencyLimitProperties properties = Binder.get(environment)
+                        .bindOrCreate("app.datasource.concurrency-limit", ConcurrencyLimitProperties.class);
+                if (!properties.isEnabled()) {
+                    return bean;
+                }
+                ConcurrencyLimitingDataSource limiter = properties.limit(pool);
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                if (registry != null) {
+                    limiter.bindMetrics(registry, pool.getPoolName() != null ? pool.getPoolName() : beanName);
+                }
+                return limiter;
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.logistics.config;
+
+import com.logistics.datasource.ConcurrencyLimitProperties;
+import com.logistics.datasource.ConcurrencyLimitingDataSource;
+import com.logistics.datasource.ReplicaRoutingDataSource;
+import com.logistics.datasource.ReplicaRoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Replaces the auto-configured pool with a primary pool plus one pool per read replica
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class DataSourceRoutingConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReplicaRoutingProperties routingProperties,
+                                                             ConcurrencyLimitProperties limitProperties,
+                                                             Environment environment,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        HikariDataSource primary = pool(dataSourceProperties, binder, ReplicaRoutingDataSource.PRIMARY, registry);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < routingProperties.getReplicas().size(); i++) {
+            ReplicaRoutingProperties.Replica settings = routingProperties.getReplicas().get(i);
+            HikariDataSource replica = pool(dataSourceProperties, binder, "replica-" + (i + 1), registry);
+            replica.setJdbcUrl(settings.getUrl());
+            if (settings.getUsername() != null) {
+                replica.setUsername(settings.getUsername());
+            }
+            if (settings.getPassword() != null) {
+                replica.setPassword(settings.getPassword());
+            }
+            if (settings.getMaximumPoolSize() != null) {
+                replica.setMaximumPoolSize(settings.getMaximumPoolSize());
+            }
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas, routingProperties.getMaxLag(),
+                pool -> limited(pool, limitProperties, registry));
+        if (registry != null) {
+            for (ReplicaRoutingDataSource.Pool replica : routing.getReplicas()) {
+                Gauge.builder("db.replica.lag", replica, ReplicaRoutingDataSource.Pool::getLagMs)
+                        .description("Replay lag of the replica in milliseconds, -1 while unreachable or not streaming")
+                        .baseUnit("milliseconds")
+                        .tag("pool", replica.getName())
+                        .register(registry);
+            }
+            Gauge.builder("db.replica.fallbacks", routing, ReplicaRoutingDataSource::getPrimaryFallbacks)
+                    .description("Read-only transactions sent to the primary because no replica was in rotation")
+                    .register(registry);
+        }
+        return routing;
+    }
+
+    // The lazy proxy defers fetching a connection until the first statement, by which time the
+    // transaction's read-only flag is set and the router can pick a replica
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private DataSource limited(HikariDataSource pool, ConcurrencyLimitProperties limitProperties,
+                               MeterRegistry registry) {
+        if (!limitProperties.isEnabled()) {
+            return pool;
+        }
+        ConcurrencyLimitingDataSource limiter = limitProperties.limit(pool);
+        if (registry != null) {
+            limiter.bindMetrics(registry, pool.getPoolName());
+        }
+        return limiter;
+    }
+
+    // Boot's pool metrics only find the pool a DataSource bean unwraps to, so each pool registers its own,
+    // tagged pool=<poolName>, including hikaricp.connections.acquire (time spent waiting for a connection)
+    private HikariDataSource pool(DataSourceProperties dataSourceProperties, Binder binder, String poolName,
+                                  MeterRegistry registry) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(HIKARI_PREFIX, Bindable.ofInstance(pool));
+        pool.setPoolName(poolName);
+        if (registry != null) {
+            pool.setMetricRegistry(registry);
+        }
+        return pool;
+    }
+
+    // Runs the replica lag check on the application's scheduler every lag-check-interval
+    @Configuration
+    @ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+    static class LagCheckScheduling implements SchedulingConfigurer {
+
+        private final ReplicaRoutingDataSource routing;
+        private final ReplicaRoutingProperties properties;
+
+        LagCheckScheduling(ReplicaRoutingDataSource routing, ReplicaRoutingProperties properties) {
+            this.routing = routing;
+            this.properties = properties;
+        }
+
+        @Override
+        public void configureTasks(ScheduledTaskRegistrar registrar) {
+            registrar.addFixedDelayTask(routing::checkReplicaLag, properties.getLagCheckInterval());
+        }
+    }
+}
@@ -3,10 +3,14 @@ package com.logistics.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.logistics.aspect.TracingProperties;
+import com.logistics.filter.RequestLoggingProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@EnableConfigurationProperties({TracingProperties.class, RequestLoggingProperties.class})
 public class LoggingConfig {
 
     @Bean
@@ -43,6 +43,9 @@ public class SecurityConfig {
                 .requestMatchers("/public/**").permitAll()
                 .requestMatchers("/dev/**").permitAll() // Allow dev endpoints
                 .requestMatchers("/h2-console/**").permitAll()
+                // Probes and the Prometheus scrape carry no credentials; other actuator endpoints are admin-only
+                .requestMatchers("/actuator/health/**", "/actuator/info", "/actuator/prometheus").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated())
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
@@ -0,0 +1,42 @@
+package com.logistics.config;
+
+import com.logistics.security.JwtTokenProvider;
+import com.logistics.security.RedisTokenRevocationStore;
+import com.logistics.security.TokenRevocationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+// Without Redis each pod keeps its own revocations, which is only correct for a single instance
+@Configuration
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+public class TokenRevocationConfig {
+
+    @Bean
+    public RedisTokenRevocationStore tokenRevocationStore(
+            StringRedisTemplate redisTemplate,
+            TokenRevocationRegistry registry,
+            JwtTokenProvider tokenProvider,
+            @Value("${jwt.revocation-channel:logistics:token-revocation}") String channel) {
+        RedisTokenRevocationStore store = new RedisTokenRevocationStore(redisTemplate, registry, channel,
+            Duration.ofMillis(tokenProvider.getExpirationMs()));
+        store.loadExisting();
+        return store;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer tokenRevocationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                          RedisTokenRevocationStore store) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(store, new ChannelTopic(store.getChannel()));
+        return container;
+    }
+}
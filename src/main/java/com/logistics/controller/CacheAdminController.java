@@ -0,0 +1,54 @@
+package com.logistics.controller;
+
+import com.logistics.cache.CoalescingCache;
+import com.logistics.cache.CoalescingCacheManager;
+import com.logistics.dto.ApiResponse;
+import com.logistics.dto.CacheStatsDTO;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/admin/cache")
+public class CacheAdminController {
+
+    private final CoalescingCacheManager cacheManager;
+
+    public CacheAdminController(CoalescingCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<CacheStatsDTO>>> getCacheStats(HttpServletRequest request) {
+        log.debug("REST request to get cache coalescing stats");
+        List<CacheStatsDTO> stats = cacheManager.getCoalescingCaches().stream()
+            .map(this::toStats)
+            .sorted(Comparator.comparing(CacheStatsDTO::getCacheName))
+            .toList();
+        return ResponseEntity.ok(ApiResponse.success(stats)
+            .withPath(request.getRequestURI())
+            .withRequestId(UUID.randomUUID().toString()));
+    }
+
+    private CacheStatsDTO toStats(CoalescingCache cache) {
+        CacheStatsDTO stats = new CacheStatsDTO();
+        stats.setCacheName(cache.getName());
+        stats.setHits(cache.getHits());
+        stats.setMisses(cache.getMisses());
+        stats.setLoads(cache.getLoads());
+        stats.setCoalesced(cache.getCoalesced());
+        stats.setEarlyRefreshes(cache.getEarlyRefreshes());
+        stats.setInFlight(cache.getInFlight());
+        return stats;
+    }
+}
@@ -0,0 +1,84 @@
+package com.logistics.controller;
+
+import com.logistics.datasource.ReplicaRoutingDataSource;
+import com.logistics.dto.ApiResponse;
+import com.logistics.dto.DataSourcePoolStatsDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/admin/datasource")
+public class DataSourceAdminController {
+
+    private final DataSource dataSource;
+    private final ObjectProvider<ReplicaRoutingDataSource> routingDataSource;
+
+    public DataSourceAdminController(DataSource dataSource,
+                                     ObjectProvider<ReplicaRoutingDataSource> routingDataSource) {
+        this.dataSource = dataSource;
+        this.routingDataSource = routingDataSource;
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<DataSourcePoolStatsDTO>>> getPoolStats(HttpServletRequest request)
+            throws SQLException {
+        log.debug("REST request to get connection pool stats");
+        List<DataSourcePoolStatsDTO> stats = new ArrayList<>();
+        ReplicaRoutingDataSource router = routingDataSource.getIfAvailable();
+        if (router != null) {
+            DataSourcePoolStatsDTO primary = toStats(router.getPrimary());
+            primary.setFallbackReads(router.getPrimaryFallbacks());
+            stats.add(primary);
+            router.getReplicas().forEach(replica -> stats.add(toStats(replica)));
+        } else if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            // Single pool without replica routing
+            DataSourcePoolStatsDTO primary = new DataSourcePoolStatsDTO();
+            HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+            primary.setPoolName(pool.getPoolName());
+            primary.setAvailable(true);
+            withPoolMetrics(primary, pool);
+            stats.add(primary);
+        }
+        return ResponseEntity.ok(ApiResponse.success(stats)
+            .withPath(request.getRequestURI())
+            .withRequestId(UUID.randomUUID().toString()));
+    }
+
+    private DataSourcePoolStatsDTO toStats(ReplicaRoutingDataSource.Pool pool) {
+        DataSourcePoolStatsDTO stats = new DataSourcePoolStatsDTO();
+        stats.setPoolName(pool.getName());
+        stats.setReplica(pool.isReplica());
+        stats.setAvailable(pool.isAvailable());
+        stats.setLagMs(pool.getLagMs());
+        stats.setRoutedConnections(pool.getRouted());
+        withPoolMetrics(stats, pool.getDataSource());
+        return stats;
+    }
+
+    private void withPoolMetrics(DataSourcePoolStatsDTO stats, HikariDataSource pool) {
+        // Null until the pool has handed out its first connection
+        HikariPoolMXBean metrics = pool.getHikariPoolMXBean();
+        if (metrics != null) {
+            stats.setActiveConnections(metrics.getActiveConnections());
+            stats.setIdleConnections(metrics.getIdleConnections());
+            stats.setTotalConnections(metrics.getTotalConnections());
+            stats.setThreadsAwaitingConnection(metrics.getThreadsAwaitingConnection());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.logistics.controller;
+
+import com.logistics.budget.QueryCounter;
+import com.logistics.export.ExportFormat;
+import com.logistics.filter.SqlStatementMetricsFilter;
+import com.logistics.service.ExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Full-table exports for finance and BI. The body is written while rows are read, without a
+ * Content-Length, so it goes out with chunked transfer encoding.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/export")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/shipments")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportShipments(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return stream(request, "shipments", exportFormat, out -> exportService.exportShipments(exportFormat, out));
+    }
+
+    @GetMapping("/orders")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return stream(request, "orders", exportFormat, out -> exportService.exportOrders(exportFormat, out));
+    }
+
+    @GetMapping("/inventory")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportInventory(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return stream(request, "inventory", exportFormat, out -> exportService.exportInventory(exportFormat, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(HttpServletRequest request, String name, ExportFormat format,
+                                                         Exporter exporter) {
+        String requestId = UUID.randomUUID().toString();
+        log.info("[RequestId: {}] Starting {} export as {}", requestId, name, format);
+
+        StreamingResponseBody body = out -> {
+            Instant start = Instant.now();
+            // The rows are read on this thread, outside the request's own statement count
+            QueryCounter.start();
+            try {
+                long rows = exporter.export(out);
+                Duration duration = Duration.between(start, Instant.now());
+                log.info("[RequestId: {}] Successfully exported {} {} rows in {} ms",
+                        requestId, rows, name, duration.toMillis());
+            } catch (IOException | RuntimeException e) {
+                Duration duration = Duration.between(start, Instant.now());
+                log.error("[RequestId: {}] Failed {} export after {} ms. Error: {}",
+                        requestId, name, duration.toMillis(), e.getMessage(), e);
+                throw e;
+            } finally {
+                SqlStatementMetricsFilter.addStatements(request, QueryCounter.stop());
+            }
+        };
+
+        return ResponseEntity.ok()
+            .contentType(format.getMediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + "." + format.getExtension())
+                .build()
+                .toString())
+            .header("X-Request-ID", requestId)
+            .body(body);
+    }
+
+    @FunctionalInterface
+    private interface Exporter {
+        long export(OutputStream out) throws IOException;
+    }
+}
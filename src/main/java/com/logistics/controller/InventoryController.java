@@ -1,10 +1,13 @@
 package com.logistics.controller;
 
 import com.logistics.dto.InventoryItemDTO;
+import com.logistics.dto.request.AdjustQuantityRequest;
 import com.logistics.dto.request.CreateInventoryItemRequest;
 import com.logistics.dto.request.UpdateInventoryItemRequest;
 import com.logistics.dto.request.UpdateQuantityRequest;
 import com.logistics.dto.response.ApiResponse;
+import com.logistics.dto.response.InventoryQuantityResponse;
+import com.logistics.dto.response.InventorySuggestion;
 import com.logistics.dto.response.PageResponse;
 import com.logistics.service.InventoryService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,6 +29,8 @@ import java.util.UUID;
 @RequestMapping("/inventory")
 public class InventoryController {
 
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final InventoryService inventoryService;
 
     @Autowired
@@ -181,6 +186,36 @@ public class InventoryController {
         }
     }
 
+    @PatchMapping("/{id}/quantity/adjust")
+    public ResponseEntity<ApiResponse<InventoryQuantityResponse>> adjustQuantity(
+            @PathVariable String id,
+            @Valid @RequestBody AdjustQuantityRequest request,
+            HttpServletRequest httpRequest) {
+        String requestId = UUID.randomUUID().toString();
+        Instant start = Instant.now();
+        log.info("[RequestId: {}] Starting to adjust quantity for inventory item with ID: {} by delta: {}", 
+                requestId, id, request.getDelta());
+        
+        try {
+            InventoryQuantityResponse result = inventoryService.adjustQuantity(id, request.getDelta(), requestId);
+            Duration duration = Duration.between(start, Instant.now());
+            log.info("[RequestId: {}] Successfully adjusted inventory item quantity in {} ms", 
+                    requestId, duration.toMillis());
+            
+            return ResponseEntity.ok(ApiResponse.success(
+                result,
+                "Successfully adjusted inventory item quantity",
+                httpRequest.getRequestURI(),
+                requestId
+            ));
+        } catch (Exception e) {
+            Duration duration = Duration.between(start, Instant.now());
+            log.error("[RequestId: {}] Failed to adjust inventory item quantity after {} ms. Error: {}", 
+                    requestId, duration.toMillis(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteItem(
             @PathVariable String id,
@@ -237,6 +272,36 @@ public class InventoryController {
         }
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<InventorySuggestion>>> suggestItems(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit,
+            HttpServletRequest request) {
+        String requestId = UUID.randomUUID().toString();
+        Instant start = Instant.now();
+        log.debug("[RequestId: {}] Starting to suggest inventory items for prefix: {}", requestId, prefix);
+        
+        try {
+            List<InventorySuggestion> suggestions = inventoryService.suggestItems(
+                    prefix, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS), requestId);
+            Duration duration = Duration.between(start, Instant.now());
+            log.debug("[RequestId: {}] Successfully suggested {} inventory items in {} ms", 
+                    requestId, suggestions.size(), duration.toMillis());
+            
+            return ResponseEntity.ok(ApiResponse.success(
+                suggestions,
+                "Successfully retrieved inventory suggestions",
+                request.getRequestURI(),
+                requestId
+            ));
+        } catch (Exception e) {
+            Duration duration = Duration.between(start, Instant.now());
+            log.error("[RequestId: {}] Failed to suggest inventory items after {} ms. Error: {}", 
+                    requestId, duration.toMillis(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<PageResponse<InventoryItemDTO>>> searchItems(
             @RequestParam String query,
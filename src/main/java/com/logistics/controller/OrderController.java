@@ -3,6 +3,7 @@ package com.logistics.controller;
 import com.logistics.dto.ApiResponse;
 import com.logistics.dto.OrderDTO;
 import com.logistics.dto.PageResponse;
+import com.logistics.dto.StatusCountsDTO;
 import com.logistics.entity.Order.OrderStatus;
 import com.logistics.service.OrderService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +25,8 @@ import java.util.UUID;
 @RequestMapping("/orders")
 public class OrderController {
 
+    private static final int MAX_RECENT = 100;
+
     private final OrderService orderService;
 
     public OrderController(OrderService orderService) {
@@ -149,11 +152,22 @@ public class OrderController {
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<ApiResponse<List<OrderDTO>>> getRecentOrdersByStatus(
             @PathVariable OrderStatus status,
+            @RequestParam(defaultValue = "20") int limit,
             HttpServletRequest request) {
-        log.debug("REST request to get recent Orders by status: {}", status);
-        List<OrderDTO> orders = orderService.getRecentOrdersByStatus(status);
+        log.debug("REST request to get recent Orders by status: {} with limit: {}", status, limit);
+        List<OrderDTO> orders = orderService.getRecentOrdersByStatus(status, Math.min(Math.max(limit, 1), MAX_RECENT));
         return ResponseEntity.ok(ApiResponse.successList(orders, "Recent orders retrieved successfully")
             .withPath(request.getRequestURI())
             .withRequestId(UUID.randomUUID().toString()));
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<StatusCountsDTO>> getOrderStats(HttpServletRequest request) {
+        log.debug("REST request to get Order status counts");
+        StatusCountsDTO stats = orderService.getStatusCounts();
+        return ResponseEntity.ok(ApiResponse.success(stats, "Order status counts retrieved successfully")
+            .withPath(request.getRequestURI())
+            .withRequestId(UUID.randomUUID().toString()));
+    }
+}
@@ -1,22 +1,33 @@
 package com.logistics.controller;
 
 import com.logistics.dto.ShipmentDTO;
+import com.logistics.dto.StatusCountsDTO;
+import com.logistics.dto.request.BulkCreateShipmentRequest;
 import com.logistics.dto.request.CreateShipmentRequest;
+import com.logistics.dto.request.ShipmentStatusBatchRequest;
 import com.logistics.dto.request.UpdateShipmentRequest;
 import com.logistics.dto.response.ApiResponse;
+import com.logistics.dto.response.BulkCreateShipmentResponse;
+import com.logistics.dto.response.LateShipmentResponse;
 import com.logistics.dto.response.PageResponse;
+import com.logistics.dto.response.ShipmentStatusBatchResponse;
 import com.logistics.service.ShipmentService;
+import com.logistics.util.KeysetCursor;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,6 +36,9 @@ import java.util.UUID;
 @RequestMapping("/shipments")
 public class ShipmentController {
 
+    private static final int MAX_RECENT = 100;
+    private static final int MAX_LATE = 1000;
+
     private final ShipmentService shipmentService;
 
     @Autowired
@@ -35,12 +49,30 @@ public class ShipmentController {
     @GetMapping
     public ResponseEntity<ApiResponse<PageResponse<ShipmentDTO>>> getAllShipments(
             Pageable pageable,
+            @RequestParam(required = false) String after,
             HttpServletRequest request) {
         String requestId = UUID.randomUUID().toString();
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to fetch all shipments with pagination: {}", requestId, pageable);
         
         try {
+            if (after != null) {
+                Slice<ShipmentDTO> shipments = shipmentService.getShipmentsAfter(after, pageable.getPageSize(), requestId);
+                Duration duration = Duration.between(start, Instant.now());
+                log.info("[RequestId: {}] Successfully fetched {} shipments by cursor in {} ms", 
+                        requestId, shipments.getNumberOfElements(), duration.toMillis());
+                
+                return ResponseEntity.ok(ApiResponse.successCursorPage(
+                    shipments.getContent(),
+                    shipments.getSize(),
+                    after.isEmpty(),
+                    nextCursor(shipments),
+                    "Successfully retrieved shipments",
+                    request.getRequestURI(),
+                    requestId
+                ));
+            }
+            
             Page<ShipmentDTO> shipments = shipmentService.getAllShipments(pageable, requestId);
             Duration duration = Duration.between(start, Instant.now());
             log.info("[RequestId: {}] Successfully fetched {} shipments in {} ms", 
@@ -120,6 +152,34 @@ public class ShipmentController {
         }
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkCreateShipmentResponse>> createShipments(
+            @Valid @RequestBody BulkCreateShipmentRequest request,
+            HttpServletRequest httpRequest) {
+        String requestId = UUID.randomUUID().toString();
+        Instant start = Instant.now();
+        log.info("[RequestId: {}] Starting to bulk create {} shipments", requestId, request.getShipments().size());
+        
+        try {
+            BulkCreateShipmentResponse response = shipmentService.createShipments(request.getShipments(), requestId);
+            Duration duration = Duration.between(start, Instant.now());
+            log.info("[RequestId: {}] Successfully bulk created {} shipments, rejected {} in {} ms", 
+                    requestId, response.getCreated(), response.getRejected(), duration.toMillis());
+            
+            return ResponseEntity.ok(ApiResponse.success(
+                response,
+                "Bulk shipment creation completed",
+                httpRequest.getRequestURI(),
+                requestId
+            ));
+        } catch (Exception e) {
+            Duration duration = Duration.between(start, Instant.now());
+            log.error("[RequestId: {}] Failed to bulk create shipments after {} ms. Error: {}", 
+                    requestId, duration.toMillis(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<ShipmentDTO>> updateShipment(
             @PathVariable String id,
@@ -154,6 +214,9 @@ public class ShipmentController {
     public ResponseEntity<ApiResponse<ShipmentDTO>> updateShipmentStatus(
             @PathVariable String id,
             @RequestParam String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime timestamp,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String notes,
             HttpServletRequest request) {
         String requestId = UUID.randomUUID().toString();
         Instant start = Instant.now();
@@ -161,7 +224,7 @@ public class ShipmentController {
                 requestId, id, status);
         
         try {
-            ShipmentDTO shipment = shipmentService.updateShipmentStatus(id, status, requestId);
+            ShipmentDTO shipment = shipmentService.updateShipmentStatus(id, status, timestamp, location, notes, requestId);
             Duration duration = Duration.between(start, Instant.now());
             log.info("[RequestId: {}] Successfully updated shipment status in {} ms", 
                     requestId, duration.toMillis());
@@ -180,6 +243,35 @@ public class ShipmentController {
         }
     }
 
+    @PostMapping("/status/batch")
+    public ResponseEntity<ApiResponse<ShipmentStatusBatchResponse>> ingestStatusUpdates(
+            @Valid @RequestBody ShipmentStatusBatchRequest request,
+            HttpServletRequest httpRequest) {
+        String requestId = UUID.randomUUID().toString();
+        Instant start = Instant.now();
+        log.info("[RequestId: {}] Starting to ingest {} shipment status updates", 
+                requestId, request.getUpdates().size());
+        
+        try {
+            ShipmentStatusBatchResponse response = shipmentService.ingestStatusUpdates(request.getUpdates(), requestId);
+            Duration duration = Duration.between(start, Instant.now());
+            log.info("[RequestId: {}] Successfully ingested status updates: {} applied, {} superseded in {} ms", 
+                    requestId, response.getApplied(), response.getSuperseded(), duration.toMillis());
+            
+            return ResponseEntity.ok(ApiResponse.success(
+                response,
+                "Shipment status updates ingested",
+                httpRequest.getRequestURI(),
+                requestId
+            ));
+        } catch (Exception e) {
+            Duration duration = Duration.between(start, Instant.now());
+            log.error("[RequestId: {}] Failed to ingest shipment status updates after {} ms. Error: {}", 
+                    requestId, duration.toMillis(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteShipment(
             @PathVariable String id,
@@ -209,21 +301,27 @@ public class ShipmentController {
     }
 
     @GetMapping("/order/{orderId}")
-    public ResponseEntity<ApiResponse<List<ShipmentDTO>>> getShipmentsByOrder(
+    public ResponseEntity<ApiResponse<PageResponse<ShipmentDTO>>> getShipmentsByOrder(
             @PathVariable String orderId,
+            Pageable pageable,
             HttpServletRequest request) {
         String requestId = UUID.randomUUID().toString();
         Instant start = Instant.now();
-        log.info("[RequestId: {}] Starting to fetch shipments for order ID: {}", requestId, orderId);
+        log.info("[RequestId: {}] Starting to fetch shipments for order ID: {} and pagination: {}", 
+                requestId, orderId, pageable);
         
         try {
-            List<ShipmentDTO> shipments = shipmentService.getShipmentsByOrder(orderId, requestId);
+            Page<ShipmentDTO> shipments = shipmentService.getShipmentsByOrder(orderId, pageable, requestId);
             Duration duration = Duration.between(start, Instant.now());
             log.info("[RequestId: {}] Successfully fetched {} shipments in {} ms", 
-                    requestId, shipments.size(), duration.toMillis());
+                    requestId, shipments.getTotalElements(), duration.toMillis());
             
-            return ResponseEntity.ok(ApiResponse.success(
-                shipments,
+            return ResponseEntity.ok(ApiResponse.successPage(
+                shipments.getContent(),
+                shipments.getTotalElements(),
+                shipments.getNumber(),
+                shipments.getSize(),
+                shipments.getTotalPages(),
                 "Successfully retrieved shipments for order",
                 request.getRequestURI(),
                 requestId
@@ -240,6 +338,7 @@ public class ShipmentController {
     public ResponseEntity<ApiResponse<PageResponse<ShipmentDTO>>> getShipmentsByStatus(
             @PathVariable String status,
             Pageable pageable,
+            @RequestParam(required = false) String after,
             HttpServletRequest request) {
         String requestId = UUID.randomUUID().toString();
         Instant start = Instant.now();
@@ -247,6 +346,24 @@ public class ShipmentController {
                 requestId, status, pageable);
         
         try {
+            if (after != null) {
+                Slice<ShipmentDTO> shipments = shipmentService.getShipmentsByStatusAfter(
+                        status, after, pageable.getPageSize(), requestId);
+                Duration duration = Duration.between(start, Instant.now());
+                log.info("[RequestId: {}] Successfully fetched {} shipments by cursor in {} ms", 
+                        requestId, shipments.getNumberOfElements(), duration.toMillis());
+                
+                return ResponseEntity.ok(ApiResponse.successCursorPage(
+                    shipments.getContent(),
+                    shipments.getSize(),
+                    after.isEmpty(),
+                    nextCursor(shipments),
+                    "Successfully retrieved shipments by status",
+                    request.getRequestURI(),
+                    requestId
+                ));
+            }
+            
             Page<ShipmentDTO> shipments = shipmentService.getShipmentsByStatus(status, pageable, requestId);
             Duration duration = Duration.between(start, Instant.now());
             log.info("[RequestId: {}] Successfully fetched {} shipments in {} ms", 
@@ -343,7 +460,8 @@ public class ShipmentController {
                 requestId, limit, status);
         
         try {
-            List<ShipmentDTO> shipments = shipmentService.getRecentShipmentsByStatus(status, limit, requestId);
+            List<ShipmentDTO> shipments = shipmentService.getRecentShipmentsByStatus(
+                    status, Math.min(Math.max(limit, 1), MAX_RECENT), requestId);
             Duration duration = Duration.between(start, Instant.now());
             log.info("[RequestId: {}] Successfully fetched {} shipments in {} ms", 
                     requestId, shipments.size(), duration.toMillis());
@@ -361,4 +479,41 @@ public class ShipmentController {
             throw e;
         }
     }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<StatusCountsDTO>> getShipmentStats(HttpServletRequest request) {
+        String requestId = UUID.randomUUID().toString();
+        StatusCountsDTO stats = shipmentService.getStatusCounts(requestId);
+        return ResponseEntity.ok(ApiResponse.success(
+            stats,
+            "Successfully retrieved shipment status counts",
+            request.getRequestURI(),
+            requestId
+        ));
+    }
+
+    @GetMapping("/late")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<List<LateShipmentResponse>>> getLateShipments(
+            @RequestParam(defaultValue = "100") int limit,
+            HttpServletRequest request) {
+        String requestId = UUID.randomUUID().toString();
+        List<LateShipmentResponse> shipments = shipmentService.getLateShipments(
+                Math.min(Math.max(limit, 1), MAX_LATE), requestId);
+        return ResponseEntity.ok(ApiResponse.success(
+            shipments,
+            "Successfully retrieved late shipments",
+            request.getRequestURI(),
+            requestId
+        ));
+    }
+
+    private String nextCursor(Slice<ShipmentDTO> shipments) {
+        if (!shipments.hasNext() || !shipments.hasContent()) {
+            return null;
+        }
+        ShipmentDTO last = shipments.getContent().get(shipments.getNumberOfElements() - 1);
+        return KeysetCursor.encode(last.getCreatedAt(), last.getId());
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.logistics.controller;
+
+import com.logistics.aspect.LoggingAspect;
+import com.logistics.aspect.MethodTimings;
+import com.logistics.dto.ApiResponse;
+import com.logistics.dto.MethodTimingDTO;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/admin/tracing")
+public class TracingAdminController {
+
+    private final LoggingAspect loggingAspect;
+
+    public TracingAdminController(LoggingAspect loggingAspect) {
+        this.loggingAspect = loggingAspect;
+    }
+
+    // Methods that spent the most time in total come first
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<MethodTimingDTO>>> getMethodTimings(
+            @RequestParam(required = false) String layer,
+            HttpServletRequest request) {
+        log.debug("REST request to get method timings for layer: {}", layer);
+        List<MethodTimingDTO> stats = loggingAspect.getTimings().stream()
+            .filter(timings -> layer == null || timings.getLayer().equalsIgnoreCase(layer))
+            .sorted(Comparator.comparingLong(MethodTimings::getTotalNanos).reversed())
+            .map(this::toDTO)
+            .toList();
+        return ResponseEntity.ok(ApiResponse.success(stats)
+            .withPath(request.getRequestURI())
+            .withRequestId(UUID.randomUUID().toString()));
+    }
+
+    private MethodTimingDTO toDTO(MethodTimings timings) {
+        MethodTimingDTO dto = new MethodTimingDTO();
+        dto.setLayer(timings.getLayer());
+        dto.setMethod(timings.getMethod());
+        dto.setCalls(timings.getCalls());
+        dto.setErrors(timings.getErrors());
+        dto.setTotalMs(timings.getTotalNanos() / 1_000_000);
+        dto.setAvgMicros(timings.getCalls() == 0 ? 0 : timings.getTotalNanos() / timings.getCalls() / 1_000);
+        dto.setMaxMicros(timings.getMaxNanos() / 1_000);
+        return dto;
+    }
+}
@@ -0,0 +1,33 @@
+package com.logistics.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.datasource.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    // Hikari's own default, which getMaximumPoolSize() only reports once the pool has started
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private boolean enabled = true;
+
+    // Connections handed out at once per pool. Defaults to the pool's maximum size, so callers
+    // queue here, fairly and visibly, and never inside Hikari
+    private Integer maxConcurrent;
+
+    // Callers allowed to queue for a permit; beyond that a request fails at once instead of parking
+    private int maxWaiting = 200;
+
+    // How long a queued caller may wait for a permit before the request fails
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+
+    public ConcurrencyLimitingDataSource limit(HikariDataSource pool) {
+        int limit = maxConcurrent != null ? maxConcurrent
+                : pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+        return new ConcurrencyLimitingDataSource(pool, limit, maxWaiting, acquireTimeout);
+    }
+}
@@ -0,0 +1,151 @@
+package com.logistics.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many connections a pool hands out at once with a fair semaphore. Callers beyond
+ * the limit park on the semaphore in arrival order, which costs next to nothing on virtual
+ * threads, instead of piling onto the pool; the permit is returned when the connection closes.
+ *
+ * <p>With virtual threads there is no request thread pool left to bound the backlog, so the
+ * queue is bounded here: once {@code maxWaiting} callers are parked, further callers fail at
+ * once, and a queued caller fails after the acquire timeout. Both fail like a pool timeout
+ * would, and are answered with 503 so load is shed instead of piling up behind a slow database.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+    // "Unable to establish connection", so Hibernate and Spring translate it as a resource failure
+    private static final String CONNECTION_FAILURE = "08001";
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final long acquireTimeoutNanos;
+    private final LongAdder rejections = new LongAdder();
+
+    public ConcurrencyLimitingDataSource(DataSource target, int maxConcurrent, int maxWaiting, Duration acquireTimeout) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return limited(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getInUse() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    public void bindMetrics(MeterRegistry registry, String poolName) {
+        Gauge.builder("db.connections.limiter.in.use", this, ConcurrencyLimitingDataSource::getInUse)
+                .description("Connection permits currently held")
+                .tag("pool", poolName)
+                .register(registry);
+        Gauge.builder("db.connections.limiter.waiting", this, ConcurrencyLimitingDataSource::getWaiting)
+                .description("Callers parked waiting for a connection permit")
+                .tag("pool", poolName)
+                .register(registry);
+        Gauge.builder("db.connections.limiter.max", this, ConcurrencyLimitingDataSource::getMaxConcurrent)
+                .description("Connection permits available in total")
+                .tag("pool", poolName)
+                .register(registry);
+        FunctionCounter.builder("db.connections.limiter.rejected", this, ConcurrencyLimitingDataSource::getRejections)
+                .description("Callers that failed because the queue was full or the acquire timeout passed")
+                .tag("pool", poolName)
+                .register(registry);
+    }
+
+    // Timed tryAcquire even for the immediate attempt, since the untimed one barges past the queue
+    private void acquire() throws SQLException {
+        try {
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+            if (permits.getQueueLength() >= maxWaiting) {
+                rejections.increment();
+                throw new SQLTransientConnectionException("No database connection permit available, "
+                        + maxWaiting + " callers already waiting", CONNECTION_FAILURE);
+            }
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejections.increment();
+                throw new SQLTransientConnectionException("No database connection permit available after "
+                        + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + "ms (" + getWaiting() + " waiting)",
+                        CONNECTION_FAILURE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection",
+                    CONNECTION_FAILURE, e);
+        }
+    }
+
+    // Releases the permit exactly once, on the first close
+    private Connection limited(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,34 @@
+package com.logistics.datasource;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Pins the reads of the current thread to the primary, even inside a read-only transaction.
+ * Cache fills run through here: right after a write evicts an entry, a lagging replica can
+ * still return the old row, and caching that would serve it until the entry expires.
+ * Only takes effect for connections fetched while pinned, which with the lazy connection
+ * proxy is any transaction whose first statement runs inside {@link #call}.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Callable<T> work) throws Exception {
+        if (isPinned()) {
+            return work.call();
+        }
+        PINNED.set(Boolean.TRUE);
+        try {
+            return work.call();
+        } finally {
+            PINNED.remove();
+        }
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+}
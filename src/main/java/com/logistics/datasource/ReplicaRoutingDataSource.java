@@ -0,0 +1,230 @@
+package com.logistics.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Sends read-only transactions to a replica pool and everything else to the primary.
+ * Replicas are picked round-robin among those whose replay lag is within the configured
+ * bound; when none qualifies the read falls back to the primary. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the
+ * physical connection is only fetched once the transaction's read-only flag is known.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    private static final String PRIMARY_LSN_QUERY = "SELECT pg_current_wal_lsn()::text";
+
+    // Compares the replica's replay position with the primary's current one, so a replica whose
+    // stream stopped reads as behind instead of as idle. Seeing pg_stat_wal_receiver.status needs
+    // pg_read_all_stats; without it the status is null and only the position check applies.
+    private static final String LAG_QUERY =
+            "SELECT pg_is_in_recovery(), " +
+            "EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status IS NULL OR status = 'streaming'), " +
+            "pg_wal_lsn_diff(CAST(? AS pg_lsn), pg_last_wal_replay_lsn()), " +
+            "EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000";
+
+    private final Pool primary;
+    private final List<Pool> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final LongAdder primaryFallbacks = new LongAdder();
+
+    /**
+     * @param connectionSource what connections of each pool are actually taken from, e.g. a
+     *                         concurrency limiter in front of it; the lag checks use the pool directly
+     */
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Duration maxLag,
+                                    Function<HikariDataSource, DataSource> connectionSource) {
+        this.primary = new Pool(primary, false);
+        this.replicas = replicas.stream().map(replica -> new Pool(replica, true)).toList();
+        this.maxLag = maxLag;
+
+        Map<Object, Object> targets = new HashMap<>();
+        DataSource primaryTarget = connectionSource.apply(primary);
+        targets.put(PRIMARY, primaryTarget);
+        for (Pool replica : this.replicas) {
+            targets.put(replica.getName(), connectionSource.apply(replica.getDataSource()));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primaryTarget);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Pool pool = primary;
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !PrimaryReads.isPinned()) {
+            Pool replica = nextAvailableReplica();
+            if (replica != null) {
+                pool = replica;
+            } else {
+                primaryFallbacks.increment();
+            }
+        }
+        pool.routed.increment();
+        return pool.getName();
+    }
+
+    private Pool nextAvailableReplica() {
+        int size = replicas.size();
+        int offset = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Pool replica = replicas.get((offset + i) % size);
+            if (replica.available) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Measure each replica's replay lag and take it out of rotation while it is too far
+     * behind, not streaming from the primary, or unreachable. Replicas start out of
+     * rotation until their first check passes. Scheduled by {@code DataSourceRoutingConfig}
+     * every {@code app.datasource.routing.lag-check-interval}.
+     */
+    public void checkReplicaLag() {
+        String primaryLsn;
+        try (Connection connection = primary.getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(PRIMARY_LSN_QUERY)) {
+            resultSet.next();
+            primaryLsn = resultSet.getString(1);
+        } catch (SQLException e) {
+            // Without the primary's position lag cannot be told from idleness; keep the last verdicts
+            log.warn("Could not read the primary's WAL position; replica lag not checked: {}", e.getMessage());
+            return;
+        }
+
+        for (Pool replica : replicas) {
+            boolean wasAvailable = replica.available;
+            try (Connection connection = replica.getDataSource().getConnection();
+                 PreparedStatement statement = connection.prepareStatement(LAG_QUERY)) {
+                statement.setString(1, primaryLsn);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    replica.lagMs = lagMs(resultSet);
+                }
+                replica.available = replica.lagMs >= 0 && replica.lagMs <= maxLag.toMillis();
+                if (wasAvailable && !replica.available) {
+                    if (replica.lagMs < 0) {
+                        log.warn("Replica {} is not streaming from the primary; routing its reads elsewhere",
+                                replica.getName());
+                    } else {
+                        log.warn("Replica {} is {} ms behind (limit {} ms); routing its reads elsewhere",
+                                replica.getName(), replica.lagMs, maxLag.toMillis());
+                    }
+                }
+            } catch (SQLException e) {
+                replica.lagMs = -1;
+                replica.available = false;
+                if (wasAvailable) {
+                    log.warn("Replica {} is unreachable; routing its reads elsewhere: {}",
+                            replica.getName(), e.getMessage());
+                }
+            }
+            if (!wasAvailable && replica.available) {
+                log.info("Replica {} is back in rotation ({} ms behind)", replica.getName(), replica.lagMs);
+            }
+        }
+    }
+
+    // Zero once the replica has replayed up to the primary's position; otherwise the age of the last
+    // replayed transaction, which over-estimates lag after an idle period but never hides it. -1 when
+    // the replica is not receiving WAL or has never replayed any.
+    private static long lagMs(ResultSet resultSet) throws SQLException {
+        boolean inRecovery = resultSet.getBoolean(1);
+        if (!inRecovery) {
+            return 0;
+        }
+        boolean streaming = resultSet.getBoolean(2);
+        if (!streaming) {
+            return -1;
+        }
+        double behindBytes = resultSet.getDouble(3);
+        if (behindBytes <= 0) {
+            return 0;
+        }
+        double replayAgeMs = resultSet.getDouble(4);
+        return resultSet.wasNull() ? -1 : Math.round(replayAgeMs);
+    }
+
+    public Pool getPrimary() {
+        return primary;
+    }
+
+    public List<Pool> getReplicas() {
+        return replicas;
+    }
+
+    public long getPrimaryFallbacks() {
+        return primaryFallbacks.sum();
+    }
+
+    @Override
+    public void destroy() {
+        for (Pool replica : replicas) {
+            replica.getDataSource().close();
+        }
+        primary.getDataSource().close();
+    }
+
+    public static final class Pool {
+        private final HikariDataSource dataSource;
+        private final boolean replica;
+        private final LongAdder routed = new LongAdder();
+        private volatile boolean available;
+        private volatile long lagMs;
+
+        private Pool(HikariDataSource dataSource, boolean replica) {
+            this.dataSource = dataSource;
+            this.replica = replica;
+            this.available = !replica;
+        }
+
+        public String getName() {
+            return dataSource.getPoolName();
+        }
+
+        public HikariDataSource getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isReplica() {
+            return replica;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        // -1 while the replica cannot be reached or is not streaming
+        public long getLagMs() {
+            return lagMs;
+        }
+
+        // Connections handed out from this pool through the router
+        public long getRouted() {
+            return routed.sum();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.logistics.datasource;
+
+import lombok.Data;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    // Off by default: without replicas everything keeps using the single spring.datasource pool
+    private boolean enabled;
+
+    // Read-only transactions are spread round-robin over these; each gets its own pool
+    private List<Replica> replicas = new ArrayList<>();
+
+    // A replica further behind than this stops receiving reads until it catches up
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    // How often each replica's replay lag is measured
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    @Data
+    public static class Replica {
+        private String url;
+        // Credentials default to the primary's when not set
+        private String username;
+        private String password;
+        // Overrides spring.datasource.hikari.maximum-pool-size for this replica's pool
+        private Integer maximumPoolSize;
+    }
+}
@@ -0,0 +1,7 @@
+package com.logistics.deadline;
+
+/**
+ * Published once when an undelivered shipment comes within the at-risk window of its expected delivery date
+ */
+public record ShipmentAtRiskEvent(ShipmentDeadline shipment) {
+}
@@ -0,0 +1,12 @@
+package com.logistics.deadline;
+
+import com.logistics.entity.ShipmentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * The fields of an undelivered shipment needed to watch its expected delivery date
+ */
+public record ShipmentDeadline(String id, String trackingNumber, String orderId, ShipmentStatus status,
+                               LocalDateTime expectedDeliveryDate) {
+}
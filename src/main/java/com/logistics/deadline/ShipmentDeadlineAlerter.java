@@ -0,0 +1,63 @@
+package com.logistics.deadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns deadline events into something ops can act on: one WARN line per late or at-risk
+ * shipment for the log pipeline, plus counters and a late-shipment gauge for alert rules.
+ */
+@Slf4j
+@Component
+public class ShipmentDeadlineAlerter {
+
+    private final Counter lateAlerts;
+    private final Counter atRiskAlerts;
+
+    public ShipmentDeadlineAlerter(ShipmentDeadlineMonitor monitor, ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            this.lateAlerts = Counter.builder("shipments.deadline.alerts")
+                    .tag("type", "late")
+                    .description("Shipments that passed their expected delivery date undelivered")
+                    .register(registry);
+            this.atRiskAlerts = Counter.builder("shipments.deadline.alerts")
+                    .tag("type", "at_risk")
+                    .description("Undelivered shipments that entered the at-risk window")
+                    .register(registry);
+            Gauge.builder("shipments.late", monitor, ShipmentDeadlineMonitor::getLateCount)
+                    .description("Undelivered shipments currently past their expected delivery date")
+                    .register(registry);
+        } else {
+            this.lateAlerts = null;
+            this.atRiskAlerts = null;
+        }
+    }
+
+    @EventListener
+    public void onLate(ShipmentLateEvent event) {
+        ShipmentDeadline shipment = event.shipment();
+        log.warn("Shipment {} (tracking {}, order {}) is late: expected by {}, status {}",
+                shipment.id(), shipment.trackingNumber(), shipment.orderId(),
+                shipment.expectedDeliveryDate(), shipment.status());
+        if (lateAlerts != null) {
+            lateAlerts.increment();
+        }
+    }
+
+    @EventListener
+    public void onAtRisk(ShipmentAtRiskEvent event) {
+        ShipmentDeadline shipment = event.shipment();
+        log.warn("Shipment {} (tracking {}, order {}) is at risk: expected by {}, status {}",
+                shipment.id(), shipment.trackingNumber(), shipment.orderId(),
+                shipment.expectedDeliveryDate(), shipment.status());
+        if (atRiskAlerts != null) {
+            atRiskAlerts.increment();
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.logistics.deadline;
+
+import com.logistics.dto.response.LateShipmentResponse;
+import com.logistics.entity.ShipmentDeadlineAlert;
+import com.logistics.entity.ShipmentStatus;
+import com.logistics.repository.ShipmentDeadlineAlertRepository;
+import com.logistics.repository.ShipmentRepository;
+import com.logistics.util.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Watches expected delivery dates of undelivered shipments. Deadlines sit in a skip list ordered by
+ * time, so each tick only visits the entries that are due or about to be, and moves overdue ones to
+ * a separate late list that {@code /shipments/late} reads directly.
+ *
+ * <p>Only deadlines within {@code horizon} of now are held. They are loaded with one range query on
+ * startup and on every reload (which also picks up writes made on other pods), and updated in
+ * place after each local write commits; local writes that commit during a reload are replayed
+ * onto its result. {@link ShipmentAtRiskEvent} and {@link ShipmentLateEvent} are raised once per
+ * shipment and deadline across all instances and restarts: every instance advances its own
+ * lists, but only the one that claims the alert in shipment_deadline_alerts publishes it.
+ */
+@Slf4j
+@Component
+public class ShipmentDeadlineMonitor {
+
+    // Shipments in these statuses can no longer be late
+    public static final Set<ShipmentStatus> CLOSED_STATUSES = EnumSet.of(ShipmentStatus.DELIVERED, ShipmentStatus.CANCELLED);
+
+    private static final Comparator<Key> BY_DEADLINE = Comparator
+            .comparing(Key::deadline)
+            .thenComparing(Key::id);
+
+    private final ShipmentRepository shipmentRepository;
+    private final ShipmentDeadlineAlertRepository alertRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration atRiskWindow;
+    private final Duration horizon;
+    private volatile Deadlines deadlines = new Deadlines();
+    // Local writes applied since the running reload started; null when none is running. Guarded by this
+    private List<Consumer<Deadlines>> pending;
+    private final Object reloadLock = new Object();
+
+    public ShipmentDeadlineMonitor(ShipmentRepository shipmentRepository,
+                                   ShipmentDeadlineAlertRepository alertRepository,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${app.deadline.at-risk-window:PT2H}") Duration atRiskWindow,
+                                   @Value("${app.deadline.horizon:P2D}") Duration horizon) {
+        this.shipmentRepository = shipmentRepository;
+        this.alertRepository = alertRepository;
+        this.eventPublisher = eventPublisher;
+        this.atRiskWindow = atRiskWindow;
+        this.horizon = horizon;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.deadline.reload-interval:PT15M}",
+               initialDelayString = "${app.deadline.reload-interval:PT15M}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    public void reload() {
+        synchronized (reloadLock) {
+            Instant start = Instant.now();
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            try {
+                Deadlines previous = deadlines;
+                Deadlines fresh = new Deadlines();
+                for (ShipmentDeadline shipment : shipmentRepository.findOpenDeadlinesBefore(
+                        LocalDateTime.now().plus(horizon), CLOSED_STATUSES)) {
+                    // Carry over what this instance already advanced; the alert claims stop repeats across restarts
+                    Tracked known = previous.byId.get(shipment.id());
+                    Phase phase = known != null && known.shipment.expectedDeliveryDate().equals(shipment.expectedDeliveryDate())
+                            ? known.phase : Phase.ON_TIME;
+                    fresh.put(new Tracked(shipment, phase));
+                }
+                synchronized (this) {
+                    pending.forEach(change -> change.accept(fresh));
+                    deadlines = fresh;
+                }
+                log.info("Loaded {} shipment deadlines in {} ms", fresh.byId.size(),
+                        Duration.between(start, Instant.now()).toMillis());
+            } catch (Exception e) {
+                // Keep watching the previous set; the next scheduled reload retries
+                log.error("Failed to load shipment deadlines: {}", e.getMessage(), e);
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+            }
+            purgeStaleAlerts();
+        }
+        tick();
+    }
+
+    @Scheduled(fixedDelayString = "${app.deadline.tick-interval:PT30S}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object> events = deadlines.advance(now, now.plus(atRiskWindow));
+        int published = 0;
+        for (Object event : events) {
+            if (claim(event)) {
+                eventPublisher.publishEvent(event);
+                published++;
+            }
+        }
+        if (!events.isEmpty()) {
+            log.info("Deadline tick found {} late/at-risk shipments, raised {}", events.size(), published);
+        }
+    }
+
+    /**
+     * Start, move or stop watching a shipment once the current transaction commits
+     */
+    public void track(ShipmentDeadline shipment) {
+        TransactionHooks.afterCommit(() -> change(current -> apply(current, shipment)));
+    }
+
+    public void trackAll(Collection<ShipmentDeadline> shipments) {
+        if (shipments.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> change(current -> {
+            for (ShipmentDeadline shipment : shipments) {
+                apply(current, shipment);
+            }
+        }));
+    }
+
+    public void untrack(String id) {
+        TransactionHooks.afterCommit(() -> change(current -> current.remove(id)));
+    }
+
+    /**
+     * Overdue undelivered shipments, most overdue first
+     */
+    public List<LateShipmentResponse> getLate(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<LateShipmentResponse> result = new ArrayList<>(Math.min(limit, deadlines.late.size()));
+        for (Tracked tracked : deadlines.late.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            ShipmentDeadline shipment = tracked.shipment;
+            LateShipmentResponse late = new LateShipmentResponse();
+            late.setId(shipment.id());
+            late.setTrackingNumber(shipment.trackingNumber());
+            late.setOrderId(shipment.orderId());
+            late.setStatus(shipment.status());
+            late.setExpectedDeliveryDate(shipment.expectedDeliveryDate());
+            late.setOverdueMinutes(Duration.between(shipment.expectedDeliveryDate(), now).toMinutes());
+            result.add(late);
+        }
+        return result;
+    }
+
+    public int getLateCount() {
+        return deadlines.late.size();
+    }
+
+    private synchronized void change(Consumer<Deadlines> change) {
+        change.accept(deadlines);
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+
+    private boolean claim(Object event) {
+        ShipmentDeadline shipment = event instanceof ShipmentLateEvent late
+                ? late.shipment() : ((ShipmentAtRiskEvent) event).shipment();
+        String type = event instanceof ShipmentLateEvent ? ShipmentDeadlineAlert.LATE : ShipmentDeadlineAlert.AT_RISK;
+        try {
+            return alertRepository.claim(shipment.id(), shipment.expectedDeliveryDate(), type);
+        } catch (Exception e) {
+            // A repeated alert is better than a missed one
+            log.warn("Failed to claim {} alert for shipment {}, raising it anyway: {}",
+                    type, shipment.id(), e.getMessage());
+            return true;
+        }
+    }
+
+    private void purgeStaleAlerts() {
+        try {
+            int purged = alertRepository.deleteStale();
+            if (purged > 0) {
+                log.info("Purged {} deadline alerts of closed or rescheduled shipments", purged);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to purge stale deadline alerts: {}", e.getMessage());
+        }
+    }
+
+    private void apply(Deadlines current, ShipmentDeadline shipment) {
+        if (shipment.expectedDeliveryDate() == null
+                || CLOSED_STATUSES.contains(shipment.status())
+                || shipment.expectedDeliveryDate().isAfter(LocalDateTime.now().plus(horizon))) {
+            current.remove(shipment.id());
+            return;
+        }
+        Tracked known = current.byId.get(shipment.id());
+        Phase phase = known != null && known.shipment.expectedDeliveryDate().equals(shipment.expectedDeliveryDate())
+                ? known.phase : Phase.ON_TIME;
+        current.put(new Tracked(shipment, phase));
+    }
+
+    private enum Phase {
+        ON_TIME,
+        AT_RISK,
+        LATE
+    }
+
+    private record Key(LocalDateTime deadline, String id) {
+    }
+
+    private static final class Tracked {
+
+        private final ShipmentDeadline shipment;
+        private final Key key;
+        private volatile Phase phase;
+
+        Tracked(ShipmentDeadline shipment, Phase phase) {
+            this.shipment = shipment;
+            this.key = new Key(shipment.expectedDeliveryDate(), shipment.id());
+            this.phase = phase;
+        }
+    }
+
+    private static final class Deadlines {
+
+        // Not yet overdue, earliest first; the head is what the next ticks will reach
+        private final ConcurrentSkipListMap<Key, Tracked> upcoming = new ConcurrentSkipListMap<>(BY_DEADLINE);
+        // Overdue, most overdue first
+        private final ConcurrentSkipListMap<Key, Tracked> late = new ConcurrentSkipListMap<>(BY_DEADLINE);
+        private final Map<String, Tracked> byId = new ConcurrentHashMap<>();
+
+        synchronized void put(Tracked tracked) {
+            remove(tracked.shipment.id());
+            byId.put(tracked.shipment.id(), tracked);
+            (tracked.phase == Phase.LATE ? late : upcoming).put(tracked.key, tracked);
+        }
+
+        synchronized void remove(String id) {
+            Tracked previous = byId.remove(id);
+            if (previous != null) {
+                upcoming.remove(previous.key);
+                late.remove(previous.key);
+            }
+        }
+
+        /**
+         * Move entries whose deadline passed to the late list and flag those inside the at-risk
+         * window; returns the events to publish
+         */
+        synchronized List<Object> advance(LocalDateTime now, LocalDateTime atRiskUntil) {
+            List<Object> events = new ArrayList<>();
+            Map<Key, Tracked> due = upcoming.headMap(new Key(atRiskUntil, ""), false);
+            for (var iterator = due.values().iterator(); iterator.hasNext(); ) {
+                Tracked tracked = iterator.next();
+                if (tracked.key.deadline().isBefore(now)) {
+                    iterator.remove();
+                    tracked.phase = Phase.LATE;
+                    late.put(tracked.key, tracked);
+                    events.add(new ShipmentLateEvent(tracked.shipment));
+                } else if (tracked.phase == Phase.ON_TIME) {
+                    tracked.phase = Phase.AT_RISK;
+                    events.add(new ShipmentAtRiskEvent(tracked.shipment));
+                }
+            }
+            return events;
+        }
+    }
+}
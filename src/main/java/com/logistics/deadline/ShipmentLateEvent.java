@@ -0,0 +1,7 @@
+package com.logistics.deadline;
+
+/**
+ * Published once when an undelivered shipment passes its expected delivery date
+ */
+public record ShipmentLateEvent(ShipmentDeadline shipment) {
+}
@@ -0,0 +1,14 @@
+package com.logistics.dto;
+
+import lombok.Data;
+
+@Data
+public class CacheStatsDTO {
+    private String cacheName;
+    private long hits;
+    private long misses;
+    private long loads;
+    private long coalesced;
+    private long earlyRefreshes;
+    private int inFlight;
+}
@@ -0,0 +1,18 @@
+package com.logistics.dto;
+
+import lombok.Data;
+
+@Data
+public class DataSourcePoolStatsDTO {
+    private String poolName;
+    private boolean replica;
+    private boolean available;
+    private long lagMs;
+    private long routedConnections;
+    // Read-only transactions sent to the primary because no replica was in rotation
+    private long fallbackReads;
+    private int activeConnections;
+    private int idleConnections;
+    private int totalConnections;
+    private int threadsAwaitingConnection;
+}
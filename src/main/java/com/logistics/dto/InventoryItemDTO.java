@@ -5,11 +5,12 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
-public class InventoryItemDTO {
+public class InventoryItemDTO implements Serializable {
     private String id;
     
     @NotBlank(message = "Name is required")
@@ -0,0 +1,14 @@
+package com.logistics.dto;
+
+import lombok.Data;
+
+@Data
+public class MethodTimingDTO {
+    private String layer;
+    private String method;
+    private long calls;
+    private long errors;
+    private long totalMs;
+    private long avgMicros;
+    private long maxMicros;
+}
@@ -8,12 +8,13 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-public class OrderDTO {
+public class OrderDTO implements Serializable {
     private String id;
     
     @NotBlank(message = "Customer ID is required")
@@ -41,7 +42,7 @@ public class OrderDTO {
     private Long version;
     
     @Data
-    public static class OrderItemDTO {
+    public static class OrderItemDTO implements Serializable {
         @NotBlank(message = "Product ID is required")
         private String productId;
         
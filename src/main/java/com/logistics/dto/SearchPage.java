@@ -0,0 +1,24 @@
+package com.logistics.dto;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * A page of search results that also carries the cache tag of the rows its query can match, so a
+ * write that adds, removes or changes such a row evicts every cached page of the search.
+ */
+public class SearchPage<T> extends PageImpl<T> {
+
+    private final String matchTag;
+
+    public SearchPage(List<T> content, Pageable pageable, long total, String matchTag) {
+        super(content, pageable, total);
+        this.matchTag = matchTag;
+    }
+
+    public String getMatchTag() {
+        return matchTag;
+    }
+}
@@ -6,11 +6,12 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-public class ShipmentDTO {
+public class ShipmentDTO implements Serializable {
     private String id;
     
     @NotBlank(message = "Order ID is required")
@@ -52,7 +53,7 @@ public class ShipmentDTO {
     private Long version;
     
     @Data
-    public static class TrackingEventDTO {
+    public static class TrackingEventDTO implements Serializable {
         @NotNull(message = "Timestamp is required")
         private LocalDateTime timestamp;
         
@@ -67,7 +68,7 @@ public class ShipmentDTO {
     }
 
     @Data
-    public static class ShipmentItemDTO {
+    public static class ShipmentItemDTO implements Serializable {
         private String id;
         private String itemId;
         private String itemName;
@@ -0,0 +1,14 @@
+package com.logistics.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+public class StatusCountsDTO {
+    private Map<String, Long> counts;
+    private long total;
+    // Last full recount; counts move incrementally in between
+    private LocalDateTime reconciledAt;
+}
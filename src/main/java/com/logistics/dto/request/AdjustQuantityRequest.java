@@ -0,0 +1,10 @@
+package com.logistics.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class AdjustQuantityRequest {
+    @NotNull(message = "Delta is required")
+    private Integer delta;
+}
@@ -0,0 +1,17 @@
+package com.logistics.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkCreateShipmentRequest {
+    public static final int MAX_SHIPMENTS = 1000;
+
+    // Items are validated one by one so a bad entry is reported instead of failing the batch
+    @NotEmpty(message = "Shipments are required")
+    @Size(max = MAX_SHIPMENTS, message = "At most " + MAX_SHIPMENTS + " shipments per request")
+    private List<CreateShipmentRequest> shipments;
+}
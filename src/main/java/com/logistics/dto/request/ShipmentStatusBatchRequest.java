@@ -0,0 +1,35 @@
+package com.logistics.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class ShipmentStatusBatchRequest {
+    public static final int MAX_UPDATES = 5000;
+
+    // Items are validated one by one so a bad scan is reported instead of failing the batch
+    @NotEmpty(message = "Updates are required")
+    @Size(max = MAX_UPDATES, message = "At most " + MAX_UPDATES + " updates per request")
+    private List<StatusUpdate> updates;
+
+    @Data
+    public static class StatusUpdate {
+        @NotBlank(message = "Tracking number is required")
+        private String trackingNumber;
+
+        @NotBlank(message = "Status is required")
+        private String status;
+
+        @NotNull(message = "Timestamp is required")
+        private LocalDateTime timestamp;
+
+        private String location;
+        private String notes;
+    }
+}
@@ -58,6 +58,38 @@ public class ApiResponse<T> {
         return response;
     }
 
+    public static <T> ApiResponse<PageResponse<T>> successCursorPage(
+            List<T> content,
+            int pageSize,
+            boolean first,
+            String nextCursor,
+            String message,
+            String path,
+            String requestId) {
+        ApiResponse<PageResponse<T>> response = new ApiResponse<>();
+        response.setStatus("success");
+        response.setCode(200);
+        response.setMessage(message);
+
+        PageResponse<T> pageResponse = new PageResponse<>();
+        pageResponse.setContent(content);
+        pageResponse.setTotalElements(-1);
+        pageResponse.setSize(pageSize);
+        pageResponse.setTotalPages(-1);
+        pageResponse.setLast(nextCursor == null);
+        pageResponse.setFirst(first);
+        pageResponse.setEmpty(content.isEmpty());
+        pageResponse.setNumberOfElements(content.size());
+        pageResponse.setNextCursor(nextCursor);
+
+        response.setData(pageResponse);
+        Metadata metadata = new Metadata();
+        metadata.setPath(path);
+        metadata.setRequestId(requestId);
+        response.setMetadata(metadata);
+        return response;
+    }
+
     public static <T> ApiResponse<T> error(String message, int code) {
         ApiResponse<T> response = new ApiResponse<>();
         response.setStatus("error");
@@ -0,0 +1,13 @@
+package com.logistics.dto.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkCreateShipmentResponse {
+    private int requested;
+    private int created;
+    private int rejected;
+    private List<BulkShipmentResult> results;
+}
@@ -0,0 +1,15 @@
+package com.logistics.dto.response;
+
+import lombok.Data;
+
+@Data
+public class BulkShipmentResult {
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private String trackingNumber;
+    private String status;
+    private String shipmentId;
+    private String error;
+}
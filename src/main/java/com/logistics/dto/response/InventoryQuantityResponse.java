@@ -0,0 +1,10 @@
+package com.logistics.dto.response;
+
+import lombok.Data;
+
+@Data
+public class InventoryQuantityResponse {
+    private String id;
+    private Integer delta;
+    private Integer quantity;
+}
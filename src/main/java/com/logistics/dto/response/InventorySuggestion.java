@@ -0,0 +1,15 @@
+package com.logistics.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventorySuggestion {
+    private String id;
+    private String sku;
+    private String name;
+    private String category;
+}
@@ -0,0 +1,16 @@
+package com.logistics.dto.response;
+
+import com.logistics.entity.ShipmentStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class LateShipmentResponse {
+    private String id;
+    private String trackingNumber;
+    private String orderId;
+    private ShipmentStatus status;
+    private LocalDateTime expectedDeliveryDate;
+    private long overdueMinutes;
+}
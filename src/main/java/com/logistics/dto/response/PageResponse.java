@@ -1,5 +1,6 @@
 package com.logistics.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import java.util.List;
 
@@ -14,4 +15,8 @@ public class PageResponse<T> {
     private boolean first;
     private boolean empty;
     private int numberOfElements;
+
+    // Only set for cursor pages; totalElements and totalPages are -1 there since no count is run
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 } 
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.logistics.dto.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ShipmentStatusBatchResponse {
+    private int received;
+    private int applied;
+    private int superseded;
+    private int notFound;
+    private int rejected;
+    private List<ShipmentStatusUpdateResult> results;
+}
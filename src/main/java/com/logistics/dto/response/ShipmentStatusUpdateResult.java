@@ -0,0 +1,18 @@
+package com.logistics.dto.response;
+
+import lombok.Data;
+
+@Data
+public class ShipmentStatusUpdateResult {
+    // Became the shipment's current status
+    public static final String APPLIED = "APPLIED";
+    // Older than another update for the same shipment or than its current status; kept as history only
+    public static final String SUPERSEDED = "SUPERSEDED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private String trackingNumber;
+    private String outcome;
+    private String error;
+}
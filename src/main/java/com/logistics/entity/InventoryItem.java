@@ -1,11 +1,14 @@
 package com.logistics.entity;
 
+import com.logistics.persistence.GeneratedUuidV7;
+import com.logistics.persistence.UuidStringJavaType;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JavaType;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -22,7 +25,8 @@ import java.time.LocalDateTime;
 public class InventoryItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
+    @JavaType(UuidStringJavaType.class)
     private String id;
 
     @NotBlank(message = "Name is required")
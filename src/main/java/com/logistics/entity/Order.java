@@ -1,8 +1,12 @@
 package com.logistics.entity;
 
+import com.logistics.persistence.GeneratedUuidV7;
+import com.logistics.persistence.UuidStringJavaType;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JavaType;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -12,11 +16,17 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "orders")
+// Indexes are created by the Flyway migrations; declared here so the mapping documents them
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_customer_created", columnList = "customer_id, created_at DESC"),
+    @Index(name = "idx_orders_status_created", columnList = "status, created_at DESC, id DESC"),
+    @Index(name = "idx_orders_created", columnList = "created_at DESC, id DESC")
+})
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
+    @JavaType(UuidStringJavaType.class)
     private String id;
 
     @Column(nullable = false)
@@ -32,7 +42,9 @@ public class Order {
     @Column(nullable = false)
     private BigDecimal totalAmount;
 
+    // Items of every order in a page load with one IN query instead of one query per order
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "order_items", joinColumns = @JoinColumn(name = "order_id"))
     private List<OrderItem> items = new ArrayList<>();
 
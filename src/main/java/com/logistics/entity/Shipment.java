@@ -1,8 +1,12 @@
 package com.logistics.entity;
 
+import com.logistics.persistence.GeneratedUuidV7;
+import com.logistics.persistence.UuidStringJavaType;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JavaType;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -11,14 +15,22 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "shipments")
+// Indexes are created by the Flyway migrations; declared here so the mapping documents them
+@Table(name = "shipments", indexes = {
+    @Index(name = "idx_shipments_order_id", columnList = "order_id"),
+    @Index(name = "idx_shipments_status_created", columnList = "status, created_at DESC, id DESC"),
+    @Index(name = "idx_shipments_created", columnList = "created_at DESC, id DESC"),
+    @Index(name = "idx_shipments_expected_delivery", columnList = "expected_delivery_date")
+})
 public class Shipment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
+    @JavaType(UuidStringJavaType.class)
     private String id;
 
     @Column(name = "order_id", nullable = false)
+    @JavaType(UuidStringJavaType.class)
     private String orderId;
 
     @Column(name = "tracking_number", nullable = false, unique = true)
@@ -43,7 +55,13 @@ public class Shipment {
     @Column(name = "actual_delivery_date")
     private LocalDateTime actualDeliveryDate;
 
+    // When the current status took effect; scanner updates older than this are kept as history only
+    @Column(name = "status_changed_at")
+    private LocalDateTime statusChangedAt;
+
+    // Items of every shipment in a page load with one IN query instead of one query per shipment
     @OneToMany(mappedBy = "shipment", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private List<ShipmentItem> items = new ArrayList<>();
 
     @CreationTimestamp
@@ -0,0 +1,45 @@
+package com.logistics.entity;
+
+import com.logistics.persistence.GeneratedUuidV7;
+import com.logistics.persistence.UuidStringJavaType;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JavaType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record that a late or at-risk alert was raised for a shipment's deadline. The unique key lets
+ * exactly one instance claim each alert, so restarts and other replicas do not raise it again.
+ */
+@Data
+@Entity
+@Immutable
+@Table(name = "shipment_deadline_alerts", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_shipment_deadline_alerts",
+        columnNames = {"shipment_id", "expected_delivery_date", "type"})
+})
+public class ShipmentDeadlineAlert {
+
+    public static final String AT_RISK = "AT_RISK";
+    public static final String LATE = "LATE";
+
+    @Id
+    @GeneratedUuidV7
+    @JavaType(UuidStringJavaType.class)
+    private String id;
+
+    @JavaType(UuidStringJavaType.class)
+    @Column(name = "shipment_id", nullable = false)
+    private String shipmentId;
+
+    @Column(name = "expected_delivery_date", nullable = false)
+    private LocalDateTime expectedDeliveryDate;
+
+    @Column(nullable = false, length = 16)
+    private String type;
+
+    @Column(name = "announced_at", nullable = false)
+    private LocalDateTime announcedAt;
+}
@@ -0,0 +1,47 @@
+package com.logistics.entity;
+
+import com.logistics.persistence.GeneratedUuidV7;
+import com.logistics.persistence.UuidStringJavaType;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JavaType;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a shipment's tracking history. Rows are only ever inserted; the history of a
+ * shipment is read in occurrence order through the (shipment_id, occurred_at) index.
+ */
+@Data
+@Entity
+@Immutable
+@Table(name = "shipment_events", indexes = {
+    @Index(name = "idx_shipment_events_shipment_occurred", columnList = "shipment_id, occurred_at")
+})
+public class ShipmentEvent {
+
+    @Id
+    @GeneratedUuidV7
+    @JavaType(UuidStringJavaType.class)
+    private String id;
+
+    @JavaType(UuidStringJavaType.class)
+    @Column(name = "shipment_id", nullable = false)
+    private String shipmentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ShipmentStatus status;
+
+    @Column(nullable = false)
+    private String description;
+
+    private String location;
+
+    @Column(length = 1000)
+    private String notes;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -1,8 +1,11 @@
 package com.logistics.entity;
 
+import com.logistics.persistence.GeneratedUuidV7;
+import com.logistics.persistence.UuidStringJavaType;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JavaType;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -12,7 +15,8 @@ import java.time.LocalDateTime;
 @Table(name = "shipment_items")
 public class ShipmentItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
+    @JavaType(UuidStringJavaType.class)
     private String id;
 
     @Column(name = "item_id", nullable = false)
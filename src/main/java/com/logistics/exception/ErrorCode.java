@@ -6,6 +6,7 @@ public enum ErrorCode {
     VALIDATION_ERROR("ERR1001", "Validation Error"),
     RESOURCE_NOT_FOUND("ERR1002", "Resource Not Found"),
     INVALID_REQUEST("ERR1003", "Invalid Request"),
+    SERVICE_UNAVAILABLE("ERR1004", "Service Unavailable"),
     
     // Authentication Errors (2000-2999)
     AUTHENTICATION_FAILED("ERR2000", "Authentication Failed"),
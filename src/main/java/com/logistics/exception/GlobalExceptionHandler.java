@@ -3,9 +3,13 @@ package com.logistics.exception;
 import com.logistics.dto.ApiResponse;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -31,6 +35,18 @@ public class GlobalExceptionHandler {
                 HttpStatus.NOT_FOUND));
     }
 
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInsufficientStockException(InsufficientStockException ex) {
+        log.warn("Insufficient stock: {}", ex.getMessage());
+        return ResponseEntity
+            .status(HttpStatus.CONFLICT)
+            .body(ApiResponse.error(
+                ex.getMessage(),
+                ErrorCode.INVALID_QUANTITY.getCode(),
+                "The adjustment would take the quantity below zero",
+                HttpStatus.CONFLICT));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiResponse<Void>> handleIllegalArgumentException(IllegalArgumentException ex) {
         log.error("Invalid argument: {}", ex.getMessage(), ex);
@@ -91,6 +107,21 @@ public class GlobalExceptionHandler {
                 HttpStatus.FORBIDDEN));
     }
 
+    // No connection within the limiter's queue or timeout: the caller should back off and retry
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class,
+            TransientDataAccessResourceException.class})
+    public ResponseEntity<ApiResponse<Void>> handleDatabaseUnavailableException(Exception ex) {
+        log.warn("Database unavailable: {}", ex.getMessage());
+        return ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(ApiResponse.error(
+                "The service is temporarily overloaded",
+                ErrorCode.SERVICE_UNAVAILABLE.getCode(),
+                "Please retry shortly",
+                HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Void>> handleAllUncaughtException(Exception ex) {
         log.error("Unexpected error occurred: ", ex);
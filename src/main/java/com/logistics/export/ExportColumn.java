@@ -0,0 +1,13 @@
+package com.logistics.export;
+
+import java.util.function.Function;
+
+/**
+ * A named column of an export, shared by the NDJSON and CSV writers.
+ */
+public record ExportColumn<T>(String name, Function<T, Object> value) {
+
+    public static <T> ExportColumn<T> of(String name, Function<T, Object> value) {
+        return new ExportColumn<>(name, value);
+    }
+}
@@ -0,0 +1,124 @@
+package com.logistics.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes one row at a time so an export never holds more than a row (plus the writer buffer) in memory.
+ */
+public abstract class ExportRowWriter<T> {
+
+    protected final List<ExportColumn<T>> columns;
+
+    protected ExportRowWriter(List<ExportColumn<T>> columns) {
+        this.columns = columns;
+    }
+
+    public static <T> ExportRowWriter<T> create(ExportFormat format, List<ExportColumn<T>> columns,
+                                                ObjectMapper objectMapper, OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonRowWriter<>(columns, objectMapper, out);
+            case CSV -> new CsvRowWriter<>(columns, out);
+        };
+    }
+
+    public abstract void write(T row) throws IOException;
+
+    /**
+     * Push buffered rows to the client; the response is chunked, so each flush is sent immediately
+     */
+    public abstract void flush() throws IOException;
+
+    private static final class NdjsonRowWriter<T> extends ExportRowWriter<T> {
+
+        private final SequenceWriter sequenceWriter;
+        private final OutputStream out;
+
+        NdjsonRowWriter(List<ExportColumn<T>> columns, ObjectMapper objectMapper, OutputStream out) throws IOException {
+            super(columns);
+            this.out = out;
+            this.sequenceWriter = objectMapper.writer().withRootValueSeparator("\n").writeValues(out);
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (ExportColumn<T> column : columns) {
+                values.put(column.name(), column.value().apply(row));
+            }
+            sequenceWriter.write(values);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            sequenceWriter.flush();
+            out.flush();
+        }
+    }
+
+    private static final class CsvRowWriter<T> extends ExportRowWriter<T> {
+
+        private final Writer writer;
+
+        CsvRowWriter(List<ExportColumn<T>> columns, OutputStream out) throws IOException {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(columns.get(i).name()));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).value().apply(row);
+                if (value != null) {
+                    writer.write(escape(format(value)));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private static String format(Object value) {
+            // Same ISO representation as the JSON API
+            if (value instanceof LocalDateTime dateTime) {
+                return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime);
+            }
+            return value.toString();
+        }
+
+        // RFC 4180: quote fields containing separators, quotes or line breaks and double embedded quotes
+        private static String escape(String value) {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+        }
+    }
+}
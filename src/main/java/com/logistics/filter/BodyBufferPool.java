@@ -0,0 +1,31 @@
+package com.logistics.filter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Fixed-size byte buffers for body capture, reused across requests so logging does not
+ * allocate a fresh array per exchange. When the pool is empty a new buffer is allocated,
+ * and buffers returned to a full pool are left to the garbage collector.
+ */
+public class BodyBufferPool {
+
+    private final BlockingQueue<byte[]> buffers;
+    private final int bufferSize;
+
+    public BodyBufferPool(int poolSize, int bufferSize) {
+        this.buffers = new ArrayBlockingQueue<>(Math.max(poolSize, 1));
+        this.bufferSize = bufferSize;
+    }
+
+    public byte[] acquire() {
+        byte[] buffer = buffers.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    public void release(byte[] buffer) {
+        if (buffer != null && buffer.length == bufferSize) {
+            buffers.offer(buffer);
+        }
+    }
+}
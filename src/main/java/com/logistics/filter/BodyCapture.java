@@ -0,0 +1,73 @@
+package com.logistics.filter;
+
+import java.nio.charset.Charset;
+
+/**
+ * Copy of the first bytes of a body as it passes through. The pooled buffer is taken on the
+ * first write, so bodiless exchanges never touch the pool, and anything past its capacity is
+ * only counted.
+ */
+class BodyCapture {
+
+    private final BodyBufferPool pool;
+    private byte[] buffer;
+    private int length;
+    private long total;
+    private boolean enabled;
+
+    BodyCapture(BodyBufferPool pool, boolean enabled) {
+        this.pool = pool;
+        this.enabled = enabled;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    void disable() {
+        enabled = false;
+    }
+
+    void write(int b) {
+        if (!enabled) {
+            return;
+        }
+        total++;
+        if (buffer == null) {
+            buffer = pool.acquire();
+        }
+        if (length < buffer.length) {
+            buffer[length++] = (byte) b;
+        }
+    }
+
+    void write(byte[] bytes, int offset, int count) {
+        if (!enabled || count <= 0) {
+            return;
+        }
+        total += count;
+        if (buffer == null) {
+            buffer = pool.acquire();
+        }
+        int copied = Math.min(count, buffer.length - length);
+        if (copied > 0) {
+            System.arraycopy(bytes, offset, buffer, length, copied);
+            length += copied;
+        }
+    }
+
+    String describe(Charset charset) {
+        if (length == 0) {
+            return "";
+        }
+        String body = new String(buffer, 0, length, charset);
+        return total > length ? body + "... (" + total + " bytes)" : body;
+    }
+
+    void release() {
+        enabled = false;
+        pool.release(buffer);
+        buffer = null;
+        length = 0;
+    }
+}
@@ -0,0 +1,132 @@
+package com.logistics.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Predicate;
+
+/**
+ * Passes every byte straight to the client and copies the first ones into a {@link BodyCapture}.
+ * Unlike a content-caching wrapper nothing is held back, so streaming and time to first byte
+ * are unaffected. Whether the body is worth capturing is decided from the content type at the
+ * first write, once the application has set it.
+ */
+class BodyCaptureResponseWrapper extends HttpServletResponseWrapper {
+
+    private final BodyCapture capture;
+    private final Predicate<String> capturableContentType;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    BodyCaptureResponseWrapper(HttpServletResponse response, BodyCapture capture,
+                               Predicate<String> capturableContentType) {
+        super(response);
+        this.capture = capture;
+        this.capturableContentType = capturableContentType;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TeeOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    // Anything still sitting in the writer must reach the client before the exchange completes
+    void flushWriter() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    // False once the content type turned out to be binary or an export
+    boolean isBodyCaptured() {
+        return capture.isEnabled();
+    }
+
+    String describeBody() {
+        return capture.describe(charset());
+    }
+
+    private Charset charset() {
+        String encoding = getCharacterEncoding();
+        return encoding != null && Charset.isSupported(encoding) ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+    }
+
+    private final class TeeOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private boolean contentTypeChecked;
+
+        private TeeOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            checkContentType();
+            capture.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            delegate.write(bytes, offset, length);
+            checkContentType();
+            capture.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+
+        private void checkContentType() {
+            if (!contentTypeChecked) {
+                contentTypeChecked = true;
+                if (!capturableContentType.test(getContentType())) {
+                    capture.disable();
+                }
+            }
+        }
+    }
+}
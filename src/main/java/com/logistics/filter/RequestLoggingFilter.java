@@ -6,21 +6,40 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
 @Component
+// Runs after security but around the other application filters, so they see the request id
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
     private static final String REQUEST_ID = "requestId";
 
+    private final RequestLoggingProperties properties;
+    private final BodyBufferPool bufferPool;
+    private final List<MediaType> capturedContentTypes;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public RequestLoggingFilter(RequestLoggingProperties properties) {
+        this.properties = properties;
+        this.bufferPool = new BodyBufferPool(properties.getBufferPoolSize(), properties.getMaxBodyBytes());
+        this.capturedContentTypes = MediaType.parseMediaTypes(properties.getCapturedContentTypes());
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -33,32 +52,48 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
         
         // Add requestId to MDC
         MDC.put(REQUEST_ID, requestId);
+        response.setHeader("X-Request-ID", requestId);
         
-        // Wrap request and response to log bodies
-        ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(request);
-        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        // Bodies are teed into capped, pooled buffers as they pass, never held back from the client
+        boolean sampled = ThreadLocalRandom.current().nextDouble() < sampleRateFor(request);
+        BodyCapture requestCapture = new BodyCapture(bufferPool, sampled && isCaptured(request.getContentType()));
+        BodyCapture responseCapture = new BodyCapture(bufferPool, sampled);
+        BodyCaptureRequestWrapper requestWrapper = new BodyCaptureRequestWrapper(request, requestCapture);
+        BodyCaptureResponseWrapper responseWrapper =
+                new BodyCaptureResponseWrapper(response, responseCapture, this::isCaptured);
+        boolean async = false;
         
         try {
-            // Set requestId in response header
-            responseWrapper.setHeader("X-Request-ID", requestId);
-            
             // Log request details
             logRequest(requestWrapper);
             
             // Continue with the filter chain
-            filterChain.doFilter(requestWrapper, responseWrapper);
+            try {
+                filterChain.doFilter(requestWrapper, responseWrapper);
+            } finally {
+                // Also when the chain throws, so an error body written so far is not lost
+                responseWrapper.flushWriter();
+            }
             
-            // Log response details
-            logResponse(responseWrapper);
+            async = request.isAsyncStarted();
+            if (async) {
+                // The body is still being written on another thread
+                log.info("RESPONSE: streaming [RequestId: {}] (body not logged)", requestId);
+            } else {
+                // Log response details
+                logResponse(requestWrapper, responseWrapper, sampled);
+            }
         } finally {
-            // Copy content to the original response
-            responseWrapper.copyBodyToResponse();
+            requestCapture.release();
+            if (!async) {
+                responseCapture.release();
+            }
             // Clear MDC
             MDC.remove(REQUEST_ID);
         }
     }
     
-    private void logRequest(ContentCachingRequestWrapper request) {
+    private void logRequest(HttpServletRequest request) {
         String queryString = request.getQueryString();
         String url = queryString == null ? request.getRequestURI() : request.getRequestURI() + "?" + queryString;
         
@@ -68,48 +103,56 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
                 MDC.get(REQUEST_ID));
         
         // Log request headers
-        log.debug("Request Headers:");
-        request.getHeaderNames().asIterator().forEachRemaining(headerName -> 
-            log.debug("  {}: {}", headerName, request.getHeader(headerName))
-        );
-        
-        // Log request body for POST, PUT, PATCH
-        String method = request.getMethod();
-        if ("POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method)) {
-            String requestBody = getRequestBody(request);
-            log.info("Request Body: {}", requestBody);
+        if (log.isDebugEnabled()) {
+            log.debug("Request Headers:");
+            request.getHeaderNames().asIterator().forEachRemaining(headerName -> 
+                log.debug("  {}: {}", headerName, request.getHeader(headerName))
+            );
         }
     }
     
-    private void logResponse(ContentCachingResponseWrapper response) {
+    private void logResponse(BodyCaptureRequestWrapper request, BodyCaptureResponseWrapper response,
+                             boolean sampled) {
+        // The request body is only known once the application has read it
+        String method = request.getMethod();
+        if (sampled && ("POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method))) {
+            log.info("Request Body: {}", request.describeBody());
+        }
+        
         log.info("RESPONSE: Status={} [RequestId: {}]", 
                 response.getStatus(), 
                 MDC.get(REQUEST_ID));
         
         // Log response body
-        String responseBody = getResponseBody(response);
-        log.info("Response Body: {}", responseBody);
+        if (sampled && response.isBodyCaptured()) {
+            log.info("Response Body: {}", response.describeBody());
+        }
     }
     
-    private String getRequestBody(ContentCachingRequestWrapper request) {
-        byte[] buf = request.getContentAsByteArray();
-        if (buf.length == 0) return "";
-        
-        try {
-            return new String(buf, request.getCharacterEncoding());
-        } catch (UnsupportedEncodingException ex) {
-            return "[Body encoding not supported]";
+    private double sampleRateFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, Double> route : properties.getRoutes().entrySet()) {
+            if (pathMatcher.match(route.getKey(), path)) {
+                return route.getValue();
+            }
         }
+        return properties.getSampleRate();
     }
     
-    private String getResponseBody(ContentCachingResponseWrapper response) {
-        byte[] buf = response.getContentAsByteArray();
-        if (buf.length == 0) return "";
-        
+    private boolean isCaptured(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
         try {
-            return new String(buf, response.getCharacterEncoding());
-        } catch (UnsupportedEncodingException ex) {
-            return "[Body encoding not supported]";
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            for (MediaType captured : capturedContentTypes) {
+                if (captured.includes(mediaType)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (InvalidMediaTypeException e) {
+            return false;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+package com.logistics.filter;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.request-logging")
+public class RequestLoggingProperties {
+
+    // At most this many bytes of each request and response body are copied for the log
+    private int maxBodyBytes = 4_096;
+
+    // Capture buffers kept for reuse; requests beyond this many in flight allocate their own
+    private int bufferPoolSize = 64;
+
+    // Share of requests whose bodies are logged, unless a route below matches first
+    private double sampleRate = 1.0;
+
+    // Per-route body sampling keyed by Ant path pattern, e.g. "[/shipments/**]": 0.1; first match wins
+    private Map<String, Double> routes = new LinkedHashMap<>();
+
+    // Bodies of other content types (binary, exports) are never captured
+    private List<String> capturedContentTypes = List.of(
+            "application/json", "application/*+json", "application/xml", "application/x-www-form-urlencoded",
+            "text/plain", "text/xml", "text/html");
+}
@@ -0,0 +1,89 @@
+package com.logistics.filter;
+
+import com.logistics.budget.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes the number of SQL statements each request prepared as
+ * {@code http.server.requests.sql.statements}, under the matched handler pattern.
+ * Requests that matched no handler are skipped. A streamed response is recorded once, on the dispatch
+ * that completes it, including the statements its body reported through {@link #addStatements}.
+ * Budgets per endpoint are asserted by the test suite rather than checked here.
+ */
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private static final String STATEMENTS_ATTRIBUTE = SqlStatementMetricsFilter.class.getName() + ".statements";
+
+    private final MeterRegistry meterRegistry;
+    // Built once per endpoint and status, so a request only looks up its summary and records
+    private final Map<Endpoint, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Add statements run outside the request's own dispatches, by a streaming body on another thread
+     */
+    public static void addStatements(ServletRequest request, int statements) {
+        request.setAttribute(STATEMENTS_ATTRIBUTE, statementsSoFar(request) + statements);
+    }
+
+    private static int statementsSoFar(ServletRequest request) {
+        return request.getAttribute(STATEMENTS_ATTRIBUTE) instanceof Integer statements ? statements : 0;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter.start();
+        int queries;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            queries = QueryCounter.stop();
+        }
+
+        if (request.isAsyncStarted()) {
+            addStatements(request, queries);
+            return;
+        }
+        queries += statementsSoFar(request);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return;
+        }
+        summaries.computeIfAbsent(new Endpoint(request.getMethod(), pattern.toString(), response.getStatus()),
+                this::summary).record(queries);
+    }
+
+    // Same method/uri/status tags as http.server.requests, so statement counts line up with latency
+    private DistributionSummary summary(Endpoint endpoint) {
+        return DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements prepared by Hibernate per request")
+                .tag("method", endpoint.method())
+                .tag("uri", endpoint.uri())
+                .tag("status", String.valueOf(endpoint.status()))
+                .register(meterRegistry);
+    }
+
+    private record Endpoint(String method, String uri, int status) {
+    }
+}
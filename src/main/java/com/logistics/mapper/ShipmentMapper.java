@@ -5,11 +5,11 @@ import com.logistics.dto.request.CreateShipmentRequest;
 import com.logistics.dto.request.UpdateShipmentRequest;
 import com.logistics.dto.response.ShipmentResponse;
 import com.logistics.entity.Shipment;
+import com.logistics.entity.ShipmentEvent;
 import com.logistics.entity.ShipmentItem;
 import com.logistics.entity.ShipmentStatus;
 import org.mapstruct.*;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -24,6 +24,7 @@ public interface ShipmentMapper {
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "version", ignore = true)
     @Mapping(target = "actualDeliveryDate", ignore = true)
+    @Mapping(target = "statusChangedAt", ignore = true)
     @Mapping(target = "items", source = "items", qualifiedByName = "mapItemsToEntity")
     Shipment toEntity(CreateShipmentRequest request);
 
@@ -43,13 +44,9 @@ public interface ShipmentMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "version", ignore = true)
+    @Mapping(target = "statusChangedAt", ignore = true)
     void updateEntity(UpdateShipmentRequest request, @MappingTarget Shipment entity);
 
-    @Mapping(target = "items", source = "items")
-    @Mapping(target = "status", source = "status", qualifiedByName = "mapStatusToString")
-    @Mapping(target = "statusHistory", expression = "java(mapStatusToHistory(entity))")
-    ShipmentResponse toResponse(Shipment entity);
-
     @Mapping(target = "estimatedDeliveryDate", source = "expectedDeliveryDate")
     @Mapping(target = "trackingEvents", ignore = true)
     @Mapping(target = "carrier", ignore = true)
@@ -100,14 +97,8 @@ public interface ShipmentMapper {
                 .collect(Collectors.toList());
     }
 
-    default List<ShipmentResponse.ShipmentStatusHistoryResponse> mapStatusToHistory(Shipment entity) {
-        List<ShipmentResponse.ShipmentStatusHistoryResponse> history = new ArrayList<>();
-        ShipmentResponse.ShipmentStatusHistoryResponse statusHistory = new ShipmentResponse.ShipmentStatusHistoryResponse();
-        statusHistory.setStatus(mapStatusToString(entity.getStatus()));
-        statusHistory.setTimestamp(LocalDateTime.now());
-        history.add(statusHistory);
-        return history;
-    }
+    @Mapping(target = "timestamp", source = "occurredAt")
+    ShipmentDTO.TrackingEventDTO toTrackingEventDTO(ShipmentEvent event);
 
     default Double calculateTotalPrice(ShipmentItem item) {
         return item.getQuantity() * item.getUnitPrice();
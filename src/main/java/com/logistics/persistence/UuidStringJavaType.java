@@ -0,0 +1,73 @@
+package com.logistics.persistence;
+
+import org.hibernate.type.SqlTypes;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractClassJavaType;
+import org.hibernate.type.descriptor.java.ImmutableMutabilityPlan;
+import org.hibernate.type.descriptor.jdbc.JdbcType;
+import org.hibernate.type.descriptor.jdbc.JdbcTypeIndicators;
+
+import java.util.UUID;
+
+/**
+ * Keeps ids as canonical UUID strings in Java (entities, DTOs, URLs and cache keys are unchanged)
+ * while storing them in native 16-byte {@code uuid} columns.
+ *
+ * <p>A string that is not a UUID cannot identify any row, so it is bound as the nil UUID: lookups
+ * by a malformed id find nothing, as they did with varchar keys, instead of failing.
+ */
+public class UuidStringJavaType extends AbstractClassJavaType<String> {
+
+    private static final UUID NIL = new UUID(0L, 0L);
+
+    public UuidStringJavaType() {
+        super(String.class, ImmutableMutabilityPlan.instance());
+    }
+
+    @Override
+    public JdbcType getRecommendedJdbcType(JdbcTypeIndicators indicators) {
+        return indicators.getJdbcType(SqlTypes.UUID);
+    }
+
+    @Override
+    public String fromString(CharSequence string) {
+        return string == null ? null : string.toString();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <X> X unwrap(String value, Class<X> type, WrapperOptions options) {
+        if (value == null) {
+            return null;
+        }
+        if (UUID.class.isAssignableFrom(type)) {
+            return (X) toUuid(value);
+        }
+        if (String.class.isAssignableFrom(type)) {
+            return (X) value;
+        }
+        throw unknownUnwrap(type);
+    }
+
+    @Override
+    public <X> String wrap(X value, WrapperOptions options) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof UUID uuid) {
+            return uuid.toString();
+        }
+        if (value instanceof String string) {
+            return string;
+        }
+        throw unknownWrap(value.getClass());
+    }
+
+    private static UUID toUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return NIL;
+        }
+    }
+}
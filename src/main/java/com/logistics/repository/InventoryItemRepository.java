@@ -1,13 +1,22 @@
 package com.logistics.repository;
 
+import com.logistics.dto.response.InventorySuggestion;
 import com.logistics.entity.InventoryItem;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface InventoryItemRepository extends JpaRepository<InventoryItem, String> {
@@ -23,4 +32,22 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, St
            "LOWER(i.category) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(i.sku) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     Page<InventoryItem> search(String searchTerm, Pageable pageable);
-} 
\ No newline at end of file
+
+    // Only the columns the typeahead index needs, without loading full entities
+    @Query("SELECT new com.logistics.dto.response.InventorySuggestion(i.id, i.sku, i.name, i.category) " +
+           "FROM InventoryItem i")
+    List<InventorySuggestion> findAllSuggestions();
+
+    // Single conditional statement: no read-modify-write window and no optimistic lock retries.
+    // Bumps the version so stale full-entity updates still fail their optimistic check.
+    @Query(value = "UPDATE inventory_items SET quantity = quantity + :delta, " +
+                   "version = COALESCE(version, 0) + 1, updated_at = now() " +
+                   "WHERE id = CAST(:id AS uuid) AND quantity + :delta >= 0 " +
+                   "RETURNING quantity", nativeQuery = true)
+    Optional<Integer> adjustQuantity(@Param("id") String id, @Param("delta") int delta);
+
+    // Server-side cursor for exports; must be consumed inside a transaction and closed
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT i FROM InventoryItem i ORDER BY i.sku")
+    Stream<InventoryItem> streamAll();
+}
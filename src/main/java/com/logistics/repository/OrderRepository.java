@@ -1,14 +1,22 @@
 package com.logistics.repository;
 
-import com.logistics.entity.Order;
 import com.logistics.entity.Order.OrderStatus;
+import com.logistics.entity.Order;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface OrderRepository extends JpaRepository<Order, String> {
     
@@ -16,11 +24,36 @@ public interface OrderRepository extends JpaRepository<Order, String> {
     
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
     
+    // The id is its own parameter: bound as uuid it cannot share a binding with the text comparisons
     @Query("SELECT o FROM Order o WHERE " +
            "LOWER(o.customerName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "o.customerId = :query OR " +
-           "o.id = :query")
-    Page<Order> search(@Param("query") String query, Pageable pageable);
+           "o.id = :id")
+    Page<Order> search(@Param("query") String query, @Param("id") String id, Pageable pageable);
     
     List<Order> findByStatusOrderByCreatedAtDesc(OrderStatus status);
-} 
\ No newline at end of file
+
+    @Query("SELECT o.status, COUNT(o) FROM Order o GROUP BY o.status")
+    List<Object[]> countByStatus();
+
+    List<Order> findByStatusOrderByCreatedAtDescIdDesc(OrderStatus status, Pageable pageable);
+
+    // Newest ids of every status in one statement, each branch a short scan of idx_orders_status_created.
+    // Statuses are passed comma-separated.
+    @Query(value = "SELECT CAST(r.id AS varchar) FROM unnest(string_to_array(:statuses, ',')) AS st(status) " +
+            "CROSS JOIN LATERAL (SELECT o.id FROM orders o WHERE o.status = st.status " +
+            "ORDER BY o.created_at DESC, o.id DESC LIMIT :perStatus) r",
+            nativeQuery = true)
+    List<String> findRecentIdsPerStatus(@Param("statuses") String statuses, @Param("perStatus") int perStatus);
+
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids")
+    Set<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<String> ids);
+
+    // Server-side cursor for exports; must be consumed inside a transaction and closed
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT o FROM Order o ORDER BY o.createdAt, o.id")
+    Stream<Order> streamAll();
+}
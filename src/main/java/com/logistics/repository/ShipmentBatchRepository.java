@@ -0,0 +1,137 @@
+package com.logistics.repository;
+
+import com.logistics.entity.ShipmentStatus;
+import com.logistics.util.UuidV7;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Set-based JDBC statements for high-volume shipment writes that would otherwise cost a
+ * load and a save per row through JPA.
+ */
+@Repository
+public class ShipmentBatchRepository {
+
+    // One statement for the whole batch: each row only moves forward in time, so a late or
+    // replayed scan can never overwrite a newer status. The inner select locks the rows first so
+    // the previous status it reports is the one actually replaced.
+    private static final String APPLY_STATUS_CHANGES =
+            "UPDATE shipments s SET status = u.status, status_changed_at = u.changed_at, " +
+            "version = COALESCE(s.version, 0) + 1, updated_at = now() " +
+            "FROM (SELECT c.id, c.status AS previous_status, n.status, n.changed_at FROM shipments c " +
+            "JOIN unnest(?::varchar[], ?::varchar[], ?::timestamp[]) AS n(tracking_number, status, changed_at) " +
+            "ON c.tracking_number = n.tracking_number FOR UPDATE OF c) AS u " +
+            "WHERE s.id = u.id " +
+            "AND (s.status_changed_at IS NULL OR s.status_changed_at < u.changed_at) " +
+            "RETURNING s.id, s.tracking_number, s.order_id, s.status, u.previous_status, s.created_at, " +
+            "s.expected_delivery_date";
+
+    private static final String FIND_IDS_BY_TRACKING_NUMBERS =
+            "SELECT id, tracking_number FROM shipments WHERE tracking_number = ANY(?::varchar[])";
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO shipment_events (id, shipment_id, status, description, location, notes, occurred_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShipmentBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record StatusChange(String trackingNumber, ShipmentStatus status, LocalDateTime changedAt) {
+    }
+
+    public record ChangedShipment(String id, String trackingNumber, String orderId, ShipmentStatus status,
+                                  ShipmentStatus previousStatus, LocalDateTime createdAt,
+                                  LocalDateTime expectedDeliveryDate) {
+    }
+
+    public record NewEvent(String shipmentId, ShipmentStatus status, String description,
+                           String location, String notes, LocalDateTime occurredAt) {
+    }
+
+    /**
+     * Tracking number to shipment id for the tracking numbers that exist
+     */
+    public Map<String, String> findIdsByTrackingNumbers(Collection<String> trackingNumbers) {
+        Map<String, String> ids = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(FIND_IDS_BY_TRACKING_NUMBERS);
+            statement.setArray(1, connection.createArrayOf("varchar", trackingNumbers.toArray()));
+            return statement;
+        }, resultSet -> {
+            ids.put(resultSet.getString("tracking_number"), resultSet.getString("id"));
+        });
+        return ids;
+    }
+
+    /**
+     * Apply at most one change per tracking number; returns the shipments whose status changed
+     */
+    public List<ChangedShipment> applyStatusChanges(List<StatusChange> changes) {
+        String[] trackingNumbers = new String[changes.size()];
+        String[] statuses = new String[changes.size()];
+        Timestamp[] changedAt = new Timestamp[changes.size()];
+        for (int i = 0; i < changes.size(); i++) {
+            StatusChange change = changes.get(i);
+            trackingNumbers[i] = change.trackingNumber();
+            statuses[i] = change.status().name();
+            changedAt[i] = Timestamp.valueOf(change.changedAt());
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(APPLY_STATUS_CHANGES);
+            statement.setArray(1, connection.createArrayOf("varchar", trackingNumbers));
+            statement.setArray(2, connection.createArrayOf("varchar", statuses));
+            statement.setArray(3, connection.createArrayOf("timestamp", changedAt));
+            return statement;
+        }, (resultSet, rowNum) -> new ChangedShipment(
+                resultSet.getString("id"),
+                resultSet.getString("tracking_number"),
+                resultSet.getString("order_id"),
+                ShipmentStatus.valueOf(resultSet.getString("status")),
+                toStatus(resultSet.getString("previous_status")),
+                resultSet.getTimestamp("created_at").toLocalDateTime(),
+                toLocalDateTime(resultSet.getTimestamp("expected_delivery_date"))));
+    }
+
+    public void insertEvents(List<NewEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                NewEvent event = events.get(i);
+                statement.setObject(1, UuidV7.generate());
+                statement.setObject(2, UUID.fromString(event.shipmentId()));
+                statement.setString(3, event.status().name());
+                statement.setString(4, event.description());
+                statement.setString(5, event.location());
+                statement.setString(6, event.notes());
+                statement.setTimestamp(7, Timestamp.valueOf(event.occurredAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+
+    private static ShipmentStatus toStatus(String value) {
+        return value == null ? null : ShipmentStatus.valueOf(value);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp value) {
+        return value == null ? null : value.toLocalDateTime();
+    }
+}
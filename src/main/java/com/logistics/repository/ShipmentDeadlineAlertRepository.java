@@ -0,0 +1,45 @@
+package com.logistics.repository;
+
+import com.logistics.util.UuidV7;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Claims deadline alerts through the unique key on shipment_deadline_alerts: the first insert
+ * wins and every later attempt, from this or any other instance, is a no-op.
+ */
+@Repository
+public class ShipmentDeadlineAlertRepository {
+
+    private static final String CLAIM =
+            "INSERT INTO shipment_deadline_alerts (id, shipment_id, expected_delivery_date, type, announced_at) " +
+            "VALUES (?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    // Alerts that can never be raised again: the shipment was closed, deleted or rescheduled
+    private static final String DELETE_STALE =
+            "DELETE FROM shipment_deadline_alerts a WHERE NOT EXISTS (SELECT 1 FROM shipments s " +
+            "WHERE s.id = a.shipment_id AND s.expected_delivery_date = a.expected_delivery_date " +
+            "AND s.status NOT IN ('DELIVERED', 'CANCELLED'))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShipmentDeadlineAlertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Whether this call recorded the alert, i.e. whether the caller should raise it
+     */
+    public boolean claim(String shipmentId, LocalDateTime expectedDeliveryDate, String type) {
+        return jdbcTemplate.update(CLAIM, UuidV7.generate(), UUID.fromString(shipmentId),
+                Timestamp.valueOf(expectedDeliveryDate), type, Timestamp.valueOf(LocalDateTime.now())) == 1;
+    }
+
+    public int deleteStale() {
+        return jdbcTemplate.update(DELETE_STALE);
+    }
+}
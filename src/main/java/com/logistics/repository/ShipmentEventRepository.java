@@ -0,0 +1,22 @@
+package com.logistics.repository;
+
+import com.logistics.entity.ShipmentEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ShipmentEventRepository extends JpaRepository<ShipmentEvent, String> {
+
+    List<ShipmentEvent> findByShipmentIdOrderByOccurredAtAsc(String shipmentId);
+
+    // One query for the histories of a whole page of shipments
+    List<ShipmentEvent> findByShipmentIdInOrderByOccurredAtAsc(Collection<String> shipmentIds);
+
+    @Modifying
+    @Query("DELETE FROM ShipmentEvent e WHERE e.shipmentId = :shipmentId")
+    int deleteByShipmentId(@Param("shipmentId") String shipmentId);
+}
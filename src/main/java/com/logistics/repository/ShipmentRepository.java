@@ -1,14 +1,25 @@
 package com.logistics.repository;
 
+import com.logistics.deadline.ShipmentDeadline;
 import com.logistics.entity.Shipment;
 import com.logistics.entity.ShipmentStatus;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface ShipmentRepository extends JpaRepository<Shipment, String> {
     
@@ -18,18 +29,79 @@ public interface ShipmentRepository extends JpaRepository<Shipment, String> {
     
     Page<Shipment> findByTrackingNumber(String trackingNumber, Pageable pageable);
 
-    @Query("SELECT s FROM Shipment s WHERE " +
-            "LOWER(s.trackingNumber) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-            "LOWER(s.orderId) = LOWER(:query) OR " +
-            "LOWER(s.destinationAddress) LIKE LOWER(CONCAT('%', :query, '%'))")
-    Page<Shipment> search(@Param("query") String query, Pageable pageable);
+    // Substring search served by the pg_trgm GIN indexes (see V3__query_path_indexes.sql) and ranked
+    // by trigram similarity. :pattern is the LIKE-escaped query wrapped in '%'; the pageable must be unsorted.
+    @Query(value = "SELECT s.* FROM shipments s WHERE " +
+            "s.tracking_number ILIKE :pattern OR CAST(s.order_id AS text) ILIKE :pattern OR s.destination_address ILIKE :pattern " +
+            "ORDER BY GREATEST(similarity(s.tracking_number, :query), similarity(CAST(s.order_id AS text), :query), " +
+            "similarity(s.destination_address, :query)) DESC, s.created_at DESC, s.id DESC",
+            countQuery = "SELECT count(*) FROM shipments s WHERE " +
+            "s.tracking_number ILIKE :pattern OR CAST(s.order_id AS text) ILIKE :pattern OR s.destination_address ILIKE :pattern",
+            nativeQuery = true)
+    Page<Shipment> search(@Param("query") String query, @Param("pattern") String pattern, Pageable pageable);
+
+    // Terms shorter than a trigram match as a case-insensitive tracking-number prefix, a range scan of
+    // idx_shipments_tracking_number_upper_prefix (see V6). :prefix is the upper-cased, LIKE-escaped term plus '%'
+    @Query(value = "SELECT s.* FROM shipments s WHERE upper(s.tracking_number) LIKE :prefix " +
+            "ORDER BY upper(s.tracking_number), s.id",
+            countQuery = "SELECT count(*) FROM shipments s WHERE upper(s.tracking_number) LIKE :prefix",
+            nativeQuery = true)
+    Page<Shipment> searchByTrackingPrefix(@Param("prefix") String prefix, Pageable pageable);
     List<Shipment> findByStatusOrderByCreatedAtDesc(ShipmentStatus status);
 
     Page<Shipment> findTopByStatusOrderByCreatedAtDesc(ShipmentStatus status, Pageable pageable);
     
     boolean existsByOrderId(String orderId);
 
+    @Query("SELECT s.status, COUNT(s) FROM Shipment s GROUP BY s.status")
+    List<Object[]> countByStatus();
+
+    // Newest ids of every status in one statement: each lateral branch is a short backward scan of
+    // idx_shipments_status_created. Statuses are passed comma-separated.
+    @Query(value = "SELECT CAST(r.id AS varchar) FROM unnest(string_to_array(:statuses, ',')) AS st(status) " +
+            "CROSS JOIN LATERAL (SELECT s.id FROM shipments s WHERE s.status = st.status " +
+            "ORDER BY s.created_at DESC, s.id DESC LIMIT :perStatus) r",
+            nativeQuery = true)
+    List<String> findRecentIdsPerStatus(@Param("statuses") String statuses, @Param("perStatus") int perStatus);
+
+    // Range scan over idx_shipments_expected_delivery up to the watch horizon
+    @Query("SELECT new com.logistics.deadline.ShipmentDeadline(s.id, s.trackingNumber, s.orderId, s.status, " +
+            "s.expectedDeliveryDate) FROM Shipment s " +
+            "WHERE s.expectedDeliveryDate < :until AND s.status NOT IN :closed")
+    List<ShipmentDeadline> findOpenDeadlinesBefore(@Param("until") LocalDateTime until,
+                                                   @Param("closed") Collection<ShipmentStatus> closed);
+
+    @Query("SELECT s.trackingNumber FROM Shipment s WHERE s.trackingNumber IN :trackingNumbers")
+    Set<String> findExistingTrackingNumbers(@Param("trackingNumbers") Collection<String> trackingNumbers);
+
+    // Keyset (seek) pagination: newest first, ties broken by id. Returning a Slice skips the count query.
+    @Query("SELECT s FROM Shipment s ORDER BY s.createdAt DESC, s.id DESC")
+    Slice<Shipment> findLatest(Pageable pageable);
+
+    @Query("SELECT s FROM Shipment s WHERE " +
+            "s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id) " +
+            "ORDER BY s.createdAt DESC, s.id DESC")
+    Slice<Shipment> findLatestBefore(@Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") String id,
+                                     Pageable pageable);
+
+    @Query("SELECT s FROM Shipment s WHERE s.status = :status ORDER BY s.createdAt DESC, s.id DESC")
+    Slice<Shipment> findLatestByStatus(@Param("status") ShipmentStatus status, Pageable pageable);
+
+    @Query("SELECT s FROM Shipment s WHERE s.status = :status AND " +
+            "(s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id)) " +
+            "ORDER BY s.createdAt DESC, s.id DESC")
+    Slice<Shipment> findLatestByStatusBefore(@Param("status") ShipmentStatus status,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") String id,
+                                             Pageable pageable);
+
     // Change the return type to a single Shipment and remove Pageable
 //    Shipment findTop1ByStatusOrderByCreatedAtDesc(ShipmentStatus status);
 
-} 
\ No newline at end of file
+    // Server-side cursor for exports: rows arrive in fetch-size chunks instead of one materialized list.
+    // Must be consumed inside a transaction and closed.
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT s FROM Shipment s ORDER BY s.createdAt, s.id")
+    Stream<Shipment> streamAll();
+}
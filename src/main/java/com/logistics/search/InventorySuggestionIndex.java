@@ -0,0 +1,195 @@
+package com.logistics.search;
+
+import com.logistics.dto.response.InventorySuggestion;
+import com.logistics.entity.InventoryItem;
+import com.logistics.repository.InventoryItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory prefix index for inventory typeahead. Terms (whole SKU, SKU segments, name tokens
+ * and the full name) live in sorted skip-list maps, so a prefix lookup is a seek plus a walk over
+ * the matching terms: O(log n + k) and lock-free for readers, with no database round trip.
+ *
+ * <p>The index is rebuilt on startup and periodically (to pick up writes made on other pods)
+ * and updated in place after each local item write commits.
+ */
+@Slf4j
+@Component
+public class InventorySuggestionIndex {
+
+    private final InventoryItemRepository inventoryItemRepository;
+    private volatile Terms terms = new Terms();
+
+    public InventorySuggestionIndex(InventoryItemRepository inventoryItemRepository) {
+        this.inventoryItemRepository = inventoryItemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.suggest.rebuild-interval:PT5M}",
+               initialDelayString = "${app.inventory.suggest.rebuild-interval:PT5M}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        Instant start = Instant.now();
+        try {
+            Terms fresh = new Terms();
+            for (InventorySuggestion suggestion : inventoryItemRepository.findAllSuggestions()) {
+                fresh.add(suggestion);
+            }
+            terms = fresh;
+            log.info("Rebuilt inventory suggestion index with {} items in {} ms",
+                    fresh.size(), Duration.between(start, Instant.now()).toMillis());
+        } catch (Exception e) {
+            // Keep serving the previous snapshot; the next scheduled rebuild retries
+            log.error("Failed to rebuild inventory suggestion index: {}", e.getMessage(), e);
+        }
+    }
+
+    public void upsert(InventoryItem item) {
+        terms.add(new InventorySuggestion(item.getId(), item.getSku(), item.getName(), item.getCategory()));
+    }
+
+    public void remove(String id) {
+        terms.remove(id);
+    }
+
+    /**
+     * Items whose SKU or name starts with the prefix; SKU matches rank ahead of name matches
+     */
+    public List<InventorySuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Terms current = terms;
+        Set<String> ids = new LinkedHashSet<>();
+        collect(current.skuTerms, key, limit, ids);
+        if (ids.size() < limit) {
+            collect(current.nameTerms, key, limit, ids);
+        }
+        List<InventorySuggestion> suggestions = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            InventorySuggestion suggestion = current.items.get(id);
+            if (suggestion != null) {
+                suggestions.add(suggestion);
+            }
+        }
+        return suggestions;
+    }
+
+    private static void collect(NavigableMap<String, Set<String>> index, String prefix, int limit, Set<String> ids) {
+        for (Map.Entry<String, Set<String>> entry : index.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                return;
+            }
+            for (String id : entry.getValue()) {
+                ids.add(id);
+                if (ids.size() >= limit) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Terms {
+
+        private final Map<String, InventorySuggestion> items = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<String, Set<String>> skuTerms = new ConcurrentSkipListMap<>();
+        private final ConcurrentSkipListMap<String, Set<String>> nameTerms = new ConcurrentSkipListMap<>();
+
+        int size() {
+            return items.size();
+        }
+
+        synchronized void add(InventorySuggestion suggestion) {
+            remove(suggestion.getId());
+            items.put(suggestion.getId(), suggestion);
+            for (String term : skuTermsOf(suggestion)) {
+                index(skuTerms, term, suggestion.getId());
+            }
+            for (String term : nameTermsOf(suggestion)) {
+                index(nameTerms, term, suggestion.getId());
+            }
+        }
+
+        synchronized void remove(String id) {
+            InventorySuggestion previous = items.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String term : skuTermsOf(previous)) {
+                unindex(skuTerms, term, id);
+            }
+            for (String term : nameTermsOf(previous)) {
+                unindex(nameTerms, term, id);
+            }
+        }
+
+        private static void index(ConcurrentSkipListMap<String, Set<String>> index, String term, String id) {
+            index.computeIfAbsent(term, ignored -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+
+        private static void unindex(ConcurrentSkipListMap<String, Set<String>> index, String term, String id) {
+            index.computeIfPresent(term, (ignored, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+
+        private static Set<String> skuTermsOf(InventorySuggestion suggestion) {
+            Set<String> result = new LinkedHashSet<>();
+            String sku = normalize(suggestion.getSku());
+            if (!sku.isEmpty()) {
+                result.add(sku);
+                // Lets "0042" find "WH-0042-A"
+                for (String segment : sku.split("[^\\p{L}\\p{N}]+")) {
+                    if (!segment.isEmpty()) {
+                        result.add(segment);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static Set<String> nameTermsOf(InventorySuggestion suggestion) {
+            Set<String> result = new LinkedHashSet<>();
+            String name = normalize(suggestion.getName());
+            if (!name.isEmpty()) {
+                // The full name serves multi-word prefixes such as "steel bo"
+                result.add(name);
+                for (String token : name.split("[^\\p{L}\\p{N}]+")) {
+                    if (!token.isEmpty()) {
+                        result.add(token);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.logistics.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,41 +18,91 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationRegistry revocationRegistry;
+    // Time spent authenticating the bearer token, by outcome; null without a meter registry
+    private final Timer anonymousTimer;
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
+    private final Timer errorTimer;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider,
+                                   UserDetailsService userDetailsService,
+                                   TokenRevocationRegistry revocationRegistry,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
+        this.revocationRegistry = revocationRegistry;
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.anonymousTimer = filterTimer(registry, "anonymous");
+        this.authenticatedTimer = filterTimer(registry, "authenticated");
+        this.rejectedTimer = filterTimer(registry, "rejected");
+        this.errorTimer = filterTimer(registry, "error");
+    }
+
+    private static Timer filterTimer(MeterRegistry meterRegistry, String outcome) {
+        if (meterRegistry == null) {
+            return null;
+        }
+        return Timer.builder("security.jwt.filter")
+                .description("Bearer token verification and principal resolution")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        long start = System.nanoTime();
+        Timer outcome = anonymousTimer;
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            if (StringUtils.hasText(jwt)) {
+                outcome = rejectedTimer;
+                Optional<Claims> claims = tokenProvider.parseClaims(jwt);
+                if (claims.isPresent()) {
+                    UserDetails userDetails = resolveUser(claims.get());
+                    if (userDetails != null) {
+                        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                                userDetails, null, userDetails.getAuthorities());
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        outcome = authenticatedTimer;
+                    }
+                }
             }
         } catch (Exception ex) {
+            outcome = errorTimer;
             logger.error("Could not set user authentication in security context", ex);
         }
+        if (outcome != null) {
+            outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
 
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolveUser(Claims claims) {
+        String username = claims.getSubject();
+        if (!tokenProvider.hasAuthorityClaims(claims)) {
+            // Tokens issued before roles were embedded still take the database path until they expire
+            return userDetailsService.loadUserByUsername(username);
+        }
+        if (revocationRegistry.isRevoked(username, tokenProvider.getIssuedEpoch(claims))) {
+            return null;
+        }
+        return tokenProvider.getUserDetails(claims);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -56,4 +110,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
-} 
\ No newline at end of file
+}
@@ -1,56 +1,182 @@
 package com.logistics.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.logistics.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenProvider {
 
+    private static final String ROLES_CLAIM = "roles";
+    private static final String PERMISSIONS_CLAIM = "permissions";
+    private static final String EPOCH_CLAIM = "epoch";
+
     private final SecretKey jwtSecret;
     private final long jwtExpirationMs;
+    // Thread-safe once built, so one parser serves every request
+    private final JwtParser parser;
+    // Claims of tokens that already passed verification, keyed by the token's SHA-256 so the
+    // cache holds no usable credentials; each entry lives until its token expires
+    private final Cache<String, Claims> verifiedClaims;
 
     public JwtTokenProvider(
             @Value("${jwt.secret:defaultSecretKey12345678901234567890}") String jwtSecret,
-            @Value("${jwt.expiration:86400000}") long jwtExpirationMs) {
+            @Value("${jwt.expiration:86400000}") long jwtExpirationMs,
+            @Value("${jwt.verified-cache.maximum-size:10000}") long verifiedCacheSize,
+            ObjectProvider<MeterRegistry> meterRegistry) {
         this.jwtSecret = Keys.hmacShaKeyFor(jwtSecret.getBytes());
         this.jwtExpirationMs = jwtExpirationMs;
+        this.parser = Jwts.parser().verifyWith(this.jwtSecret).build();
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, verifiedClaims, "jwtVerifiedClaims"));
+    }
+
+    public long getExpirationMs() {
+        return jwtExpirationMs;
     }
 
-    public String generateToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+    /**
+     * Issue a token carrying the user's roles and permissions so requests can be
+     * authenticated without loading the user. The epoch claim (issue time in ms)
+     * is what {@link TokenRevocationRegistry} compares against.
+     */
+    public String generateToken(User user) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
         return Jwts.builder()
-                .subject(userPrincipal.getUsername())
-                .issuedAt(new Date())
+                .subject(user.getEmail())
+                .claim(ROLES_CLAIM, new ArrayList<>(user.getRoles()))
+                .claim(PERMISSIONS_CLAIM, new ArrayList<>(user.getPermissions()))
+                .claim(EPOCH_CLAIM, now.getTime())
+                .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(jwtSecret)
                 .compact();
     }
 
+    /**
+     * Verify the signature and expiry and return the claims, or empty if the token is invalid.
+     * A token seen before is answered from the verified cache without recomputing the HMAC;
+     * revocation is still checked by the caller on every request.
+     */
+    public Optional<Claims> parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        String key = digest(token);
+        Claims cached = verifiedClaims.getIfPresent(key);
+        if (cached != null && !isExpired(cached)) {
+            return Optional.of(cached);
+        }
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            verifiedClaims.put(key, claims);
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public boolean hasAuthorityClaims(Claims claims) {
+        return claims.containsKey(ROLES_CLAIM);
+    }
+
+    public long getIssuedEpoch(Claims claims) {
+        Long epoch = claims.get(EPOCH_CLAIM, Long.class);
+        if (epoch != null) {
+            return epoch;
+        }
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L;
+    }
+
+    /**
+     * Build the principal from token claims with the same authority set
+     * {@link CustomUserDetailsService} derives from the database.
+     */
+    public UserDetails getUserDetails(Claims claims) {
+        return org.springframework.security.core.userdetails.User.builder()
+                .username(claims.getSubject())
+                .password("")
+                .authorities(UserAuthorities.of(claimValues(claims, ROLES_CLAIM),
+                        claimValues(claims, PERMISSIONS_CLAIM)))
+                .build();
+    }
+
     public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(jwtSecret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return parseClaims(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new JwtException("Invalid JWT token"));
     }
 
     public boolean validateToken(String token) {
+        return parseClaims(token).isPresent();
+    }
+
+    // Entries expire with their token, but the eviction is not exact to the millisecond
+    private static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration == null || expiration.getTime() <= System.currentTimeMillis();
+    }
+
+    private static String digest(String token) {
         try {
-            Jwts.parser().verifyWith(jwtSecret).build().parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Collection<?> claimValues(Claims claims, String name) {
+        Object value = claims.get(name);
+        return value instanceof Collection<?> values ? values : List.of();
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0L;
+            }
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, expiration.getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+package com.logistics.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Shares token revocations between pods. Each revocation is stored under a per-user key that
+ * expires with the longest-lived token it can match, so a pod starting later still loads it,
+ * and is broadcast on a pub/sub channel so running pods apply it immediately. Requests are
+ * still checked against the local {@link TokenRevocationRegistry} without a Redis round trip.
+ */
+@Slf4j
+public class RedisTokenRevocationStore implements MessageListener {
+
+    private static final String KEY_PREFIX = "logistics:token-revocation:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final TokenRevocationRegistry registry;
+    private final String channel;
+    private final Duration retention;
+
+    public RedisTokenRevocationStore(StringRedisTemplate redisTemplate, TokenRevocationRegistry registry,
+                                     String channel, Duration retention) {
+        this.redisTemplate = redisTemplate;
+        this.registry = registry;
+        this.channel = channel;
+        this.retention = retention;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void publish(String username, long epoch) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + username, Long.toString(epoch), retention);
+            redisTemplate.convertAndSend(channel, epoch + ":" + username);
+        } catch (Exception e) {
+            // The revoking pod already rejects the tokens; other pods accept them until they expire
+            log.error("Failed to share token revocation for {}: {}", username, e.getMessage());
+        }
+    }
+
+    /**
+     * Pull revocations recorded before this pod started. Runs once at creation and again when
+     * the app is ready, which covers revocations published before the listener subscribed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadExisting() {
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(500).build();
+        int loaded = 0;
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                String key = keys.next();
+                String epoch = redisTemplate.opsForValue().get(key);
+                if (epoch != null) {
+                    registry.record(key.substring(KEY_PREFIX.length()), Long.parseLong(epoch));
+                    loaded++;
+                }
+            }
+            log.info("Loaded {} token revocations from Redis", loaded);
+        } catch (Exception e) {
+            log.error("Failed to load token revocations from Redis: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        try {
+            registry.record(body.substring(separator + 1), Long.parseLong(body.substring(0, separator)));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed token revocation message: {}", body);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.logistics.security;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small in-memory map of username to revocation epoch. Tokens whose epoch claim is older
+ * than the recorded epoch are rejected, which invalidates tokens carrying stale roles or
+ * permissions. Entries are dropped once every token they could match has expired anyway.
+ * With the Redis cache enabled, revocations are shared with the other pods through
+ * {@link RedisTokenRevocationStore}; epochs are wall-clock times, so pods need synced clocks.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private final Map<String, Long> revokedBefore = new ConcurrentHashMap<>();
+    private final long retentionMs;
+    private final ObjectProvider<RedisTokenRevocationStore> sharedStore;
+
+    public TokenRevocationRegistry(JwtTokenProvider tokenProvider,
+                                   ObjectProvider<RedisTokenRevocationStore> sharedStore) {
+        this.retentionMs = tokenProvider.getExpirationMs();
+        this.sharedStore = sharedStore;
+    }
+
+    /**
+     * Reject every token issued to this user up to now, on every pod
+     */
+    public void revokeAll(String username) {
+        long now = System.currentTimeMillis();
+        record(username, now);
+        sharedStore.ifAvailable(store -> store.publish(username, now));
+    }
+
+    /**
+     * Apply a revocation locally, whether made here or received from another pod
+     */
+    public void record(String username, long epoch) {
+        long now = System.currentTimeMillis();
+        revokedBefore.merge(username, epoch, Math::max);
+        revokedBefore.values().removeIf(recorded -> recorded < now - retentionMs);
+    }
+
+    public boolean isRevoked(String username, long tokenEpoch) {
+        Long epoch = revokedBefore.get(username);
+        return epoch != null && tokenEpoch < epoch;
+    }
+}
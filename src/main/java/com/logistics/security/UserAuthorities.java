@@ -0,0 +1,30 @@
+package com.logistics.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Single mapping from a user's roles and permissions to granted authorities, shared by the
+ * token-claims path and the database lookup so both authenticate a user identically.
+ * Roles become ROLE_ authorities; permissions are added as plain authorities.
+ */
+public final class UserAuthorities {
+
+    private UserAuthorities() {
+    }
+
+    public static List<GrantedAuthority> of(Collection<?> roles, Collection<?> permissions) {
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size() + permissions.size());
+        for (Object role : roles) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+        }
+        for (Object permission : permissions) {
+            authorities.add(new SimpleGrantedAuthority(permission.toString()));
+        }
+        return authorities;
+    }
+}
@@ -44,10 +44,10 @@ public class AuthService {
         );
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.generateToken(authentication);
 
         User user = userRepository.findByEmail(loginRequest.getEmail())
             .orElseThrow(() -> new RuntimeException("User not found"));
+        String jwt = tokenProvider.generateToken(user);
         
         // Update last login time
         user.setLastLogin(LocalDateTime.now());
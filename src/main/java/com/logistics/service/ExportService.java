@@ -0,0 +1,128 @@
+package com.logistics.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.entity.InventoryItem;
+import com.logistics.entity.Order;
+import com.logistics.entity.Shipment;
+import com.logistics.export.ExportColumn;
+import com.logistics.export.ExportFormat;
+import com.logistics.export.ExportRowWriter;
+import com.logistics.repository.InventoryItemRepository;
+import com.logistics.repository.OrderRepository;
+import com.logistics.repository.ShipmentRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables to an output stream. Rows come from a database cursor, are written one at a
+ * time and detached right after, so memory use does not depend on the number of exported rows.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class ExportService {
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private static final List<ExportColumn<Shipment>> SHIPMENT_COLUMNS = List.of(
+            ExportColumn.of("id", Shipment::getId),
+            ExportColumn.of("orderId", Shipment::getOrderId),
+            ExportColumn.of("trackingNumber", Shipment::getTrackingNumber),
+            ExportColumn.of("status", Shipment::getStatus),
+            ExportColumn.of("originAddress", Shipment::getOriginAddress),
+            ExportColumn.of("destinationAddress", Shipment::getDestinationAddress),
+            ExportColumn.of("recipientName", Shipment::getRecipientName),
+            ExportColumn.of("expectedDeliveryDate", Shipment::getExpectedDeliveryDate),
+            ExportColumn.of("actualDeliveryDate", Shipment::getActualDeliveryDate),
+            ExportColumn.of("statusChangedAt", Shipment::getStatusChangedAt),
+            ExportColumn.of("createdAt", Shipment::getCreatedAt),
+            ExportColumn.of("updatedAt", Shipment::getUpdatedAt));
+
+    // Order lines are left out: they live in a separate collection table and would cost a query per order
+    private static final List<ExportColumn<Order>> ORDER_COLUMNS = List.of(
+            ExportColumn.of("id", Order::getId),
+            ExportColumn.of("customerId", Order::getCustomerId),
+            ExportColumn.of("customerName", Order::getCustomerName),
+            ExportColumn.of("status", Order::getStatus),
+            ExportColumn.of("totalAmount", Order::getTotalAmount),
+            ExportColumn.of("shippingAddress", Order::getShippingAddress),
+            ExportColumn.of("billingAddress", Order::getBillingAddress),
+            ExportColumn.of("notes", Order::getNotes),
+            ExportColumn.of("createdAt", Order::getCreatedAt),
+            ExportColumn.of("updatedAt", Order::getUpdatedAt));
+
+    private static final List<ExportColumn<InventoryItem>> INVENTORY_COLUMNS = List.of(
+            ExportColumn.of("id", InventoryItem::getId),
+            ExportColumn.of("sku", InventoryItem::getSku),
+            ExportColumn.of("name", InventoryItem::getName),
+            ExportColumn.of("description", InventoryItem::getDescription),
+            ExportColumn.of("category", InventoryItem::getCategory),
+            ExportColumn.of("location", InventoryItem::getLocation),
+            ExportColumn.of("quantity", InventoryItem::getQuantity),
+            ExportColumn.of("minimumQuantity", InventoryItem::getMinimumQuantity),
+            ExportColumn.of("unitPrice", InventoryItem::getUnitPrice),
+            ExportColumn.of("createdAt", InventoryItem::getCreatedAt),
+            ExportColumn.of("updatedAt", InventoryItem::getUpdatedAt));
+
+    private final ShipmentRepository shipmentRepository;
+    private final OrderRepository orderRepository;
+    private final InventoryItemRepository inventoryItemRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(ShipmentRepository shipmentRepository,
+                         OrderRepository orderRepository,
+                         InventoryItemRepository inventoryItemRepository,
+                         EntityManager entityManager,
+                         ObjectMapper objectMapper) {
+        this.shipmentRepository = shipmentRepository;
+        this.orderRepository = orderRepository;
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    public long exportShipments(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Shipment> rows = shipmentRepository.streamAll()) {
+            return write(rows, SHIPMENT_COLUMNS, format, out);
+        }
+    }
+
+    public long exportOrders(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Order> rows = orderRepository.streamAll()) {
+            return write(rows, ORDER_COLUMNS, format, out);
+        }
+    }
+
+    public long exportInventory(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<InventoryItem> rows = inventoryItemRepository.streamAll()) {
+            return write(rows, INVENTORY_COLUMNS, format, out);
+        }
+    }
+
+    private <T> long write(Stream<T> rows, List<ExportColumn<T>> columns, ExportFormat format, OutputStream out)
+            throws IOException {
+        ExportRowWriter<T> writer = ExportRowWriter.create(format, columns, objectMapper, out);
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            writer.write(row);
+            // Keep the persistence context from growing with the export
+            entityManager.detach(row);
+            if (++count % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+}
@@ -1,24 +1,33 @@
 package com.logistics.service;
 
+import com.logistics.cache.CacheInvalidator;
+import com.logistics.cache.CacheTags;
 import com.logistics.dto.InventoryItemDTO;
 import com.logistics.dto.request.CreateInventoryItemRequest;
 import com.logistics.dto.request.UpdateInventoryItemRequest;
+import com.logistics.dto.response.InventoryQuantityResponse;
+import com.logistics.dto.response.InventorySuggestion;
 import com.logistics.entity.InventoryItem;
+import com.logistics.exception.InsufficientStockException;
 import com.logistics.exception.ResourceNotFoundException;
 import com.logistics.mapper.InventoryItemMapper;
 import com.logistics.repository.InventoryItemRepository;
+import com.logistics.search.InventorySuggestionIndex;
+import com.logistics.util.TransactionHooks;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Slf4j
 @Service
@@ -27,14 +36,20 @@ public class InventoryService {
 
     private final InventoryItemRepository inventoryItemRepository;
     private final InventoryItemMapper inventoryItemMapper;
+    private final CacheInvalidator cacheInvalidator;
+    private final InventorySuggestionIndex suggestionIndex;
 
     @Autowired
-    public InventoryService(InventoryItemRepository inventoryItemRepository, InventoryItemMapper inventoryItemMapper) {
+    public InventoryService(InventoryItemRepository inventoryItemRepository, InventoryItemMapper inventoryItemMapper,
+                            CacheInvalidator cacheInvalidator, InventorySuggestionIndex suggestionIndex) {
         this.inventoryItemRepository = inventoryItemRepository;
         this.inventoryItemMapper = inventoryItemMapper;
+        this.cacheInvalidator = cacheInvalidator;
+        this.suggestionIndex = suggestionIndex;
     }
 
-    @Cacheable(value = "inventoryItems", key = "#pageable")
+    @Transactional(readOnly = true)
+    @Cacheable(value = "inventoryItems", key = "#pageable", sync = true)
     public Page<InventoryItemDTO> getAllItems(Pageable pageable, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to fetch all inventory items with pagination: {}", requestId, pageable);
@@ -54,7 +69,8 @@ public class InventoryService {
         }
     }
 
-    @Cacheable(value = "inventoryItem", key = "#id")
+    @Transactional(readOnly = true)
+    @Cacheable(value = "inventoryItem", key = "#id", sync = true)
     public InventoryItemDTO getItemById(String id, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to fetch inventory item with ID: {}", requestId, id);
@@ -75,14 +91,15 @@ public class InventoryService {
         }
     }
 
-    @CacheEvict(value = {"inventoryItems", "inventoryItem"}, allEntries = true)
     public InventoryItemDTO createItem(CreateInventoryItemRequest request, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to create inventory item with data: {}", requestId, request);
         
         try {
-            InventoryItem item = inventoryItemMapper.toEntity(request);
-            item = inventoryItemRepository.save(item);
+            InventoryItem item = inventoryItemRepository.save(inventoryItemMapper.toEntity(request));
+            TransactionHooks.afterCommit(() -> suggestionIndex.upsert(item));
+            // A new row shifts every offset page and can join any search or low-stock list
+            cacheInvalidator.clear("inventoryItems", "inventorySearch", "lowStockItems");
             Duration duration = Duration.between(start, Instant.now());
             log.info("[RequestId: {}] Successfully created inventory item with ID: {} in {} ms", 
                     requestId, item.getId(), duration.toMillis());
@@ -96,7 +113,6 @@ public class InventoryService {
         }
     }
 
-    @CacheEvict(value = {"inventoryItems", "inventoryItem"}, allEntries = true)
     public InventoryItemDTO updateItem(String id, UpdateInventoryItemRequest request, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to update inventory item with ID: {} and data: {}", 
@@ -108,6 +124,10 @@ public class InventoryService {
             
             inventoryItemMapper.updateEntity(request, existingItem);
             InventoryItem updatedItem = inventoryItemRepository.save(existingItem);
+            evictItemEntries(id);
+            TransactionHooks.afterCommit(() -> suggestionIndex.upsert(updatedItem));
+            // Name, SKU or category changes can move the item in or out of search results
+            cacheInvalidator.clear("inventorySearch");
             
             Duration duration = Duration.between(start, Instant.now());
             log.info("[RequestId: {}] Successfully updated inventory item in {} ms", 
@@ -122,7 +142,6 @@ public class InventoryService {
         }
     }
 
-    @CacheEvict(value = {"inventoryItems", "inventoryItem"}, allEntries = true)
     public InventoryItemDTO updateQuantity(String id, int quantity, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to update quantity for inventory item with ID: {} to quantity: {}", 
@@ -134,6 +153,7 @@ public class InventoryService {
             
             item.setQuantity(quantity);
             item = inventoryItemRepository.save(item);
+            evictQuantityEntries(id);
             
             Duration duration = Duration.between(start, Instant.now());
             log.info("[RequestId: {}] Successfully updated inventory item quantity in {} ms", 
@@ -148,7 +168,63 @@ public class InventoryService {
         }
     }
 
-    @CacheEvict(value = {"inventoryItems", "inventoryItem"}, allEntries = true)
+    public InventoryQuantityResponse adjustQuantity(String id, int delta, String requestId) {
+        Instant start = Instant.now();
+        log.info("[RequestId: {}] Starting to adjust quantity for inventory item with ID: {} by delta: {}", 
+                requestId, id, delta);
+        
+        try {
+            // A malformed id cannot match any row and would only fail the uuid cast
+            Optional<Integer> adjusted = isUuid(id) ? inventoryItemRepository.adjustQuantity(id, delta) : Optional.empty();
+            Integer quantity = adjusted.orElseThrow(() -> rejectedAdjustment(id, delta));
+            evictQuantityEntries(id);
+            
+            Duration duration = Duration.between(start, Instant.now());
+            log.info("[RequestId: {}] Successfully adjusted inventory item quantity to {} in {} ms", 
+                    requestId, quantity, duration.toMillis());
+            
+            InventoryQuantityResponse response = new InventoryQuantityResponse();
+            response.setId(id);
+            response.setDelta(delta);
+            response.setQuantity(quantity);
+            return response;
+        } catch (Exception e) {
+            Duration duration = Duration.between(start, Instant.now());
+            log.error("[RequestId: {}] Failed to adjust inventory item quantity after {} ms. Error: {}", 
+                    requestId, duration.toMillis(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private void evictItemEntries(String id) {
+        cacheInvalidator.evict("inventoryItem", id);
+        cacheInvalidator.evictTags(CacheTags.inventoryItem(id));
+    }
+
+    private void evictQuantityEntries(String id) {
+        evictItemEntries(id);
+        // Low-stock lists are keyed by threshold, so any quantity change can alter their membership
+        cacheInvalidator.clear("lowStockItems");
+    }
+
+    private static boolean isUuid(String id) {
+        try {
+            UUID.fromString(id);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private RuntimeException rejectedAdjustment(String id, int delta) {
+        // Only reached when the conditional update matched no row, so the extra lookup stays off the hot path
+        if (!inventoryItemRepository.existsById(id)) {
+            return new ResourceNotFoundException("Inventory item not found with id: " + id);
+        }
+        return new InsufficientStockException(
+                "Insufficient stock for inventory item " + id + " to apply delta " + delta);
+    }
+
     public void deleteItem(String id, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to delete inventory item with ID: {}", requestId, id);
@@ -158,6 +234,8 @@ public class InventoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory item not found with id: " + id));
             
             inventoryItemRepository.delete(item);
+            evictItemEntries(id);
+            TransactionHooks.afterCommit(() -> suggestionIndex.remove(id));
             Duration duration = Duration.between(start, Instant.now());
             log.info("[RequestId: {}] Successfully deleted inventory item in {} ms", 
                     requestId, duration.toMillis());
@@ -169,7 +247,19 @@ public class InventoryService {
         }
     }
 
-    @Cacheable(value = "lowStockItems", key = "#threshold")
+    // Served from memory on every keystroke, so neither cached nor run in a transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<InventorySuggestion> suggestItems(String prefix, int limit, String requestId) {
+        Instant start = Instant.now();
+        List<InventorySuggestion> suggestions = suggestionIndex.suggest(prefix, limit);
+        Duration duration = Duration.between(start, Instant.now());
+        log.debug("[RequestId: {}] Found {} suggestions for prefix: {} in {} us",
+                requestId, suggestions.size(), prefix, duration.toNanos() / 1_000);
+        return suggestions;
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(value = "lowStockItems", key = "#threshold", sync = true)
     public List<InventoryItemDTO> getLowStockItems(int threshold, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to fetch low stock items with threshold: {}", requestId, threshold);
@@ -191,7 +281,8 @@ public class InventoryService {
         }
     }
 
-    @Cacheable(value = "inventorySearch", key = "#query + '-' + #pageable")
+    @Transactional(readOnly = true)
+    @Cacheable(value = "inventorySearch", key = "#query + '-' + #pageable", sync = true)
     public Page<InventoryItemDTO> searchItems(String query, Pageable pageable, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to search inventory items with query: {} and pagination: {}", 
@@ -212,6 +303,7 @@ public class InventoryService {
         }
     }
 
+    @Transactional(readOnly = true)
     public Page<InventoryItemDTO> getLowStockItems(Pageable pageable) {
         log.info("Fetching low stock items with pageable: {}", pageable);
         try {
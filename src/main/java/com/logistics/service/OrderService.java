@@ -1,17 +1,23 @@
 package com.logistics.service;
 
+import com.logistics.cache.CacheInvalidator;
+import com.logistics.cache.CacheTags;
 import com.logistics.dto.OrderDTO;
+import com.logistics.dto.StatusCountsDTO;
 import com.logistics.entity.Order;
 import com.logistics.entity.Order.OrderStatus;
 import com.logistics.exception.ResourceNotFoundException;
 import com.logistics.mapper.OrderMapper;
 import com.logistics.repository.OrderRepository;
+import com.logistics.repository.ShipmentRepository;
+import com.logistics.stats.OrderStatusCounters;
+import com.logistics.stats.RecentOrders;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -21,22 +27,31 @@ import java.util.List;
 public class OrderService {
 
     private final OrderRepository orderRepository;
+    private final ShipmentRepository shipmentRepository;
     private final OrderMapper orderMapper;
+    private final CacheInvalidator cacheInvalidator;
+    private final OrderStatusCounters statusCounters;
+    private final RecentOrders recentOrders;
 
-    public OrderService(OrderRepository orderRepository, OrderMapper orderMapper) {
+    public OrderService(OrderRepository orderRepository, ShipmentRepository shipmentRepository, OrderMapper orderMapper,
+                        CacheInvalidator cacheInvalidator, OrderStatusCounters statusCounters, RecentOrders recentOrders) {
         this.orderRepository = orderRepository;
+        this.shipmentRepository = shipmentRepository;
         this.orderMapper = orderMapper;
+        this.cacheInvalidator = cacheInvalidator;
+        this.statusCounters = statusCounters;
+        this.recentOrders = recentOrders;
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "orders", key = "'page:' + #pageable.pageNumber + ':' + #pageable.pageSize")
+    @Cacheable(value = "orders", key = "'page:' + #pageable.pageNumber + ':' + #pageable.pageSize", sync = true)
     public Page<OrderDTO> getAllOrders(Pageable pageable) {
         return orderRepository.findAll(pageable)
                 .map(orderMapper::toDTO);
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "orders", key = "#id")
+    @Cacheable(value = "orders", key = "#id", sync = true)
     public OrderDTO getOrderById(String id) {
         return orderRepository.findById(id)
                 .map(orderMapper::toDTO)
@@ -44,76 +59,107 @@ public class OrderService {
     }
 
     @Transactional
-    @CacheEvict(value = "orders", allEntries = true)
     public OrderDTO createOrder(OrderDTO orderDTO) {
         Order order = orderMapper.toEntity(orderDTO);
         if (order.getStatus() == null) {
             order.setStatus(OrderStatus.PENDING);
         }
         Order savedOrder = orderRepository.save(order);
-        return orderMapper.toDTO(savedOrder);
+        statusCounters.recordCreated(savedOrder.getStatus());
+        // Every list can gain the new order, but cached single orders stay valid
+        cacheInvalidator.evictTags(CacheTags.list("orders"));
+        OrderDTO created = orderMapper.toDTO(savedOrder);
+        recentOrders.upsert(created);
+        return created;
     }
 
     @Transactional
-    @CacheEvict(value = "orders", key = "#id")
     public OrderDTO updateOrder(String id, OrderDTO orderDTO) {
         return orderRepository.findById(id)
                 .map(existingOrder -> {
+                    OrderStatus previousStatus = existingOrder.getStatus();
                     orderMapper.updateEntity(existingOrder, orderDTO);
                     Order updatedOrder = orderRepository.save(existingOrder);
-                    return orderMapper.toDTO(updatedOrder);
+                    statusCounters.recordTransition(previousStatus, updatedOrder.getStatus());
+                    evictOrderEntries(updatedOrder);
+                    OrderDTO updated = orderMapper.toDTO(updatedOrder);
+                    recentOrders.upsert(updated);
+                    return updated;
                 })
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
     }
 
     @Transactional
-    @CacheEvict(value = "orders", key = "#id")
     public OrderDTO updateOrderStatus(String id, OrderStatus status) {
         return orderRepository.findById(id)
                 .map(order -> {
+                    OrderStatus previousStatus = order.getStatus();
                     order.setStatus(status);
                     Order updatedOrder = orderRepository.save(order);
-                    return orderMapper.toDTO(updatedOrder);
+                    statusCounters.recordTransition(previousStatus, updatedOrder.getStatus());
+                    evictOrderEntries(updatedOrder);
+                    OrderDTO updated = orderMapper.toDTO(updatedOrder);
+                    recentOrders.upsert(updated);
+                    return updated;
                 })
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
     }
 
     @Transactional
-    @CacheEvict(value = "orders", key = "#id")
     public void deleteOrder(String id) {
-        if (!orderRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Order not found with id: " + id);
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        // Shipments reference their order by foreign key
+        if (shipmentRepository.existsByOrderId(id)) {
+            throw new IllegalArgumentException("Order " + id + " has shipments and cannot be deleted");
         }
-        orderRepository.deleteById(id);
+        orderRepository.delete(order);
+        statusCounters.recordDeleted(order.getStatus());
+        recentOrders.remove(id);
+        cacheInvalidator.evict("orders", id);
+        cacheInvalidator.evictTags(CacheTags.order(id));
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "orders", key = "'customer:' + #customerId + ':page:' + #pageable.pageNumber")
+    @Cacheable(value = "orders", key = "'customer:' + #customerId + ':page:' + #pageable.pageNumber", sync = true)
     public Page<OrderDTO> getOrdersByCustomer(String customerId, Pageable pageable) {
         return orderRepository.findByCustomerId(customerId, pageable)
                 .map(orderMapper::toDTO);
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "orders", key = "'status:' + #status + ':page:' + #pageable.pageNumber")
+    @Cacheable(value = "orders", key = "'status:' + #status + ':page:' + #pageable.pageNumber", sync = true)
     public Page<OrderDTO> getOrdersByStatus(OrderStatus status, Pageable pageable) {
         return orderRepository.findByStatus(status, pageable)
                 .map(orderMapper::toDTO);
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "orders", key = "'search:' + #query + ':page:' + #pageable.pageNumber")
+    @Cacheable(value = "orders", key = "'search:' + #query + ':page:' + #pageable.pageNumber", sync = true)
     public Page<OrderDTO> searchOrders(String query, Pageable pageable) {
-        return orderRepository.search(query, pageable)
+        return orderRepository.search(query, query, pageable)
                 .map(orderMapper::toDTO);
     }
 
+    // Served from the in-memory recent buffer, newest first
     @Transactional(readOnly = true)
-    @Cacheable(value = "orders", key = "'status:' + #status + ':recent'")
-    public List<OrderDTO> getRecentOrdersByStatus(OrderStatus status) {
-        return orderRepository.findByStatusOrderByCreatedAtDesc(status)
-                .stream()
-                .map(orderMapper::toDTO)
-                .toList();
+    public List<OrderDTO> getRecentOrdersByStatus(OrderStatus status, int limit) {
+        return recentOrders.getRecent(status, limit);
+    }
+
+    // Served from in-memory counters, so dashboards can poll it freely
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StatusCountsDTO getStatusCounts() {
+        return statusCounters.toDTO();
+    }
+
+    // Lists that contained the order drop out via its tag; lists matching its new status or customer may gain it
+    private void evictOrderEntries(Order order) {
+        cacheInvalidator.evict("orders", order.getId());
+        cacheInvalidator.evictTags(
+                CacheTags.order(order.getId()),
+                CacheTags.status("orders", order.getStatus()),
+                CacheTags.customer("orders", order.getCustomerId()),
+                CacheTags.emptyList("orders"));
     }
-} 
\ No newline at end of file
+}
@@ -1,25 +1,61 @@
 package com.logistics.service;
 
+import com.logistics.cache.CacheInvalidator;
+import com.logistics.cache.CacheTags;
+import com.logistics.deadline.ShipmentDeadline;
+import com.logistics.deadline.ShipmentDeadlineMonitor;
+import com.logistics.dto.SearchPage;
 import com.logistics.dto.ShipmentDTO;
+import com.logistics.dto.StatusCountsDTO;
 import com.logistics.dto.request.CreateShipmentRequest;
+import com.logistics.dto.request.ShipmentStatusBatchRequest;
+import com.logistics.dto.response.BulkCreateShipmentResponse;
+import com.logistics.dto.response.BulkShipmentResult;
+import com.logistics.dto.response.LateShipmentResponse;
+import com.logistics.dto.response.ShipmentStatusBatchResponse;
+import com.logistics.dto.response.ShipmentStatusUpdateResult;
 import com.logistics.dto.request.UpdateShipmentRequest;
 import com.logistics.entity.Shipment;
+import com.logistics.entity.ShipmentEvent;
 import com.logistics.entity.ShipmentStatus;
 import com.logistics.exception.ResourceNotFoundException;
 import com.logistics.mapper.ShipmentMapper;
+import com.logistics.repository.OrderRepository;
+import com.logistics.repository.ShipmentBatchRepository;
+import com.logistics.repository.ShipmentEventRepository;
 import com.logistics.repository.ShipmentRepository;
+import com.logistics.stats.RecentShipments;
+import com.logistics.stats.ShipmentStatusCounters;
+import com.logistics.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -27,16 +63,48 @@ import java.util.stream.Collectors;
 @Transactional
 public class ShipmentService {
 
+    // Trigram indexes serve terms of at least this length; shorter ones are matched as a tracking-number prefix
+    private static final int MIN_TRIGRAM_LENGTH = 3;
+    private static final String SEARCH_CACHE = "shipmentSearch";
+    // A write whose rows touch more search tags than this clears the search cache instead
+    private static final int MAX_SEARCH_TAGS = 1_000;
+
     private final ShipmentRepository shipmentRepository;
+    private final OrderRepository orderRepository;
+    private final ShipmentEventRepository shipmentEventRepository;
+    private final ShipmentBatchRepository shipmentBatchRepository;
     private final ShipmentMapper shipmentMapper;
+    private final CacheInvalidator cacheInvalidator;
+    private final ShipmentStatusCounters statusCounters;
+    private final RecentShipments recentShipments;
+    private final ShipmentDeadlineMonitor deadlineMonitor;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final int jdbcBatchSize;
 
     @Autowired
-    public ShipmentService(ShipmentRepository shipmentRepository, ShipmentMapper shipmentMapper) {
+    public ShipmentService(ShipmentRepository shipmentRepository, OrderRepository orderRepository,
+                           ShipmentEventRepository shipmentEventRepository,
+                           ShipmentBatchRepository shipmentBatchRepository, ShipmentMapper shipmentMapper, CacheInvalidator cacheInvalidator,
+                           ShipmentStatusCounters statusCounters, RecentShipments recentShipments,
+                           ShipmentDeadlineMonitor deadlineMonitor, EntityManager entityManager, Validator validator,
+                           @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int jdbcBatchSize) {
         this.shipmentRepository = shipmentRepository;
+        this.orderRepository = orderRepository;
+        this.shipmentEventRepository = shipmentEventRepository;
+        this.shipmentBatchRepository = shipmentBatchRepository;
         this.shipmentMapper = shipmentMapper;
+        this.cacheInvalidator = cacheInvalidator;
+        this.statusCounters = statusCounters;
+        this.recentShipments = recentShipments;
+        this.deadlineMonitor = deadlineMonitor;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.jdbcBatchSize = jdbcBatchSize;
     }
 
-    @Cacheable(value = "shipments", key = "#pageable")
+    @Transactional(readOnly = true)
+    @Cacheable(value = "shipments", key = "#pageable", sync = true)
     public Page<ShipmentDTO> getAllShipments(Pageable pageable, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to fetch all shipments with pagination: {}", requestId, pageable);
@@ -47,7 +115,7 @@ public class ShipmentService {
             log.info("[RequestId: {}] Successfully fetched {} shipments in {} ms", 
                     requestId, shipments.getTotalElements(), duration.toMillis());
             
-            return shipments.map(shipmentMapper::toDTO);
+            return withTrackingEvents(shipments.map(shipmentMapper::toDTO));
         } catch (Exception e) {
             Duration duration = Duration.between(start, Instant.now());
             log.error("[RequestId: {}] Failed to fetch shipments after {} ms. Error: {}", 
@@ -56,7 +124,37 @@ public class ShipmentService {
         }
     }
 
-    @Cacheable(value = "shipment", key = "#id")
+    @Transactional(readOnly = true)
+    @Cacheable(value = "shipments", key = "'after:' + #after + '-' + #pageSize", sync = true)
+    public Slice<ShipmentDTO> getShipmentsAfter(String after, int pageSize, String requestId) {
+        Instant start = Instant.now();
+        log.info("[RequestId: {}] Starting to fetch shipments after cursor: {} with page size: {}", 
+                requestId, after, pageSize);
+        
+        try {
+            Pageable pageable = PageRequest.of(0, pageSize);
+            Slice<Shipment> shipments;
+            if (after == null || after.isEmpty()) {
+                shipments = shipmentRepository.findLatest(pageable);
+            } else {
+                KeysetCursor cursor = KeysetCursor.decode(after);
+                shipments = shipmentRepository.findLatestBefore(cursor.getCreatedAt(), cursor.getId(), pageable);
+            }
+            Duration duration = Duration.between(start, Instant.now());
+            log.info("[RequestId: {}] Successfully fetched {} shipments in {} ms", 
+                    requestId, shipments.getNumberOfElements(), duration.toMillis());
+            
+            return withTrackingEvents(shipments.map(shipmentMapper::toDTO));
+        } catch (Exception e) {
+            Duration duration = Duration.between(start, Instant.now());
+            log.error("[RequestId: {}] Failed to fetch shipments after cursor after {} ms. Error: {}", 
+                    requestId, duration.toMillis(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(value = "shipment", key = "#id", sync = true)
     public ShipmentDTO getShipmentById(String id, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to fetch shipment with ID: {}", requestId, id);
@@ -68,7 +166,7 @@ public class ShipmentService {
             log.info("[RequestId: {}] Successfully fetched shipment in {} ms", 
                     requestId, duration.toMillis());
             
-            return shipmentMapper.toDTO(shipment);
+            return withTrackingEvents(shipmentMapper.toDTO(shipment));
         } catch (Exception e) {
             Duration duration = Duration.between(start, Instant.now());
             log.error("[RequestId: {}] Failed to fetch shipment after {} ms. Error: {}", 
@@ -77,19 +175,30 @@ public class ShipmentService {
         }
     }
 
-    @CacheEvict(value = {"shipments", "shipment"}, allEntries = true)
     public ShipmentDTO createShipment(CreateShipmentRequest request, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to create shipment with data: {}", requestId, request);
         
         try {
+            requireOrder(request.getOrderId());
             Shipment shipment = shipmentMapper.toEntity(request);
             shipment = shipmentRepository.save(shipment);
+            ShipmentEvent created = recordEvent(shipment, "Shipment created", null, null);
+            statusCounters.recordCreated(shipment.getStatus());
+            recentShipments.upsert(shipmentMapper.toDTO(shipment));
+            deadlineMonitor.track(deadlineOf(shipment));
+            evictShipmentEntries(shipment);
+            evictStatusLists(shipment.getStatus());
+            // A new row shifts every offset page
+            cacheInvalidator.clear("shipments");
+            evictSearches(List.of(shipment));
             Duration duration = Duration.between(start, Instant.now());
             log.info("[RequestId: {}] Successfully created shipment with ID: {} in {} ms", 
                     requestId, shipment.getId(), duration.toMillis());
             
-            return shipmentMapper.toDTO(shipment);
+            ShipmentDTO dto = shipmentMapper.toDTO(shipment);
+            dto.setTrackingEvents(List.of(shipmentMapper.toTrackingEventDTO(created)));
+            return dto;
         } catch (Exception e) {
             Duration duration = Duration.between(start, Instant.now());
             log.error("[RequestId: {}] Failed to create shipment after {} ms. Error: {}", 
@@ -98,7 +207,135 @@ public class ShipmentService {
         }
     }
 
-    @CacheEvict(value = {"shipments", "shipment"}, allEntries = true)
+    /**
+     * Create many shipments in one transaction. Invalid entries and duplicate tracking numbers are
+     * rejected individually; the rest are inserted in JDBC batches of hibernate.jdbc.batch_size,
+     * flushing and clearing the persistence context between chunks so it stays small.
+     */
+    public BulkCreateShipmentResponse createShipments(List<CreateShipmentRequest> requests, String requestId) {
+        Instant start = Instant.now();
+        log.info("[RequestId: {}] Starting to bulk create {} shipments", requestId, requests.size());
+        
+        try {
+            // One query for all tracking numbers and one for all orders instead of checks per shipment
+            Set<String> trackingNumbers = new HashSet<>();
+            Set<String> orderIds = new HashSet<>();
+            for (CreateShipmentRequest request : requests) {
+                if (request != null && request.getTrackingNumber() != null) {
+                    trackingNumbers.add(request.getTrackingNumber());
+                }
+                if (request != null && request.getOrderId() != null) {
+                    orderIds.add(request.getOrderId());
+                }
+            }
+            Set<String> taken = trackingNumbers.isEmpty()
+                    ? new HashSet<>()
+                    : new HashSet<>(shipmentRepository.findExistingTrackingNumbers(trackingNumbers));
+            Set<String> orders = orderIds.isEmpty() ? Set.of() : orderRepository.findExistingIds(orderIds);
+
+            List<BulkShipmentResult> results = new ArrayList<>(requests.size());
+            List<Shipment> accepted = new ArrayList<>();
+            List<BulkShipmentResult> acceptedResults = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) {
+                CreateShipmentRequest request = requests.get(i);
+                BulkShipmentResult result = new BulkShipmentResult();
+                result.setIndex(i);
+                results.add(result);
+
+                String error = validateBulkItem(request, taken, orders);
+                if (error != null) {
+                    result.setTrackingNumber(request != null ? request.getTrackingNumber() : null);
+                    result.setStatus(BulkShipmentResult.REJECTED);
+                    result.setError(error);
+                    continue;
+                }
+                result.setTrackingNumber(request.getTrackingNumber());
+                taken.add(request.getTrackingNumber());
+                accepted.add(shipmentMapper.toEntity(request));
+                acceptedResults.add(result);
+            }
+
+            Map<ShipmentStatus, Long> createdByStatus = new EnumMap<>(ShipmentStatus.class);
+            for (Shipment shipment : accepted) {
+                createdByStatus.merge(shipment.getStatus(), 1L, Long::sum);
+            }
+
+            List<ShipmentDTO> created = new ArrayList<>(accepted.size());
+            List<ShipmentDeadline> deadlines = new ArrayList<>(accepted.size());
+            for (int from = 0; from < accepted.size(); from += jdbcBatchSize) {
+                List<Shipment> chunk = shipmentRepository.saveAll(
+                        accepted.subList(from, Math.min(from + jdbcBatchSize, accepted.size())));
+                for (int j = 0; j < chunk.size(); j++) {
+                    Shipment shipment = chunk.get(j);
+                    recordEvent(shipment, "Shipment created", null, null);
+                    BulkShipmentResult result = acceptedResults.get(from + j);
+                    result.setShipmentId(shipment.getId());
+                    result.setStatus(BulkShipmentResult.CREATED);
+                    created.add(shipmentMapper.toDTO(shipment));
+                    deadlines.add(deadlineOf(shipment));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            }
+
+            if (!accepted.isEmpty()) {
+                // Once per batch rather than once per row
+                statusCounters.recordTransitions(createdByStatus, Map.of());
+                recentShipments.upsertAll(created);
+                deadlineMonitor.trackAll(deadlines);
+                evictStatusLists(ShipmentStatus.PENDING);
+                cacheInvalidator.clear("shipments", "shipmentsByOrder");
+                evictSearches(accepted);
+            }
+
+            BulkCreateShipmentResponse response = new BulkCreateShipmentResponse();
+            response.setRequested(requests.size());
+            response.setCreated(accepted.size());
+            response.setRejected(requests.size() - accepted.size());
+            response.setResults(results);
+
+            Duration duration = Duration.between(start, Instant.now());
+            log.info("[RequestId: {}] Successfully bulk created {} of {} shipments in {} ms", 
+                    requestId, accepted.size(), requests.size(), duration.toMillis());
+            
+            return response;
+        } catch (Exception e) {
+            Duration duration = Duration.between(start, Instant.now());
+            log.error("[RequestId: {}] Failed to bulk create shipments after {} ms. Error: {}", 
+                    requestId, duration.toMillis(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private String validateBulkItem(CreateShipmentRequest request, Set<String> takenTrackingNumbers,
+                                    Set<String> existingOrderIds) {
+        if (request == null) {
+            return "Shipment is required";
+        }
+        Set<ConstraintViolation<CreateShipmentRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (takenTrackingNumbers.contains(request.getTrackingNumber())) {
+            return "Duplicate tracking number: " + request.getTrackingNumber();
+        }
+        // Ids come back from the uuid column in canonical lower case
+        if (!existingOrderIds.contains(request.getOrderId().toLowerCase(Locale.ROOT))) {
+            return "Unknown order: " + request.getOrderId();
+        }
+        return null;
+    }
+
+    // shipments.order_id is a foreign key: reject an unknown order before any side effect, not at commit
+    private void requireOrder(String orderId) {
+        if (orderId != null && !orderRepository.existsById(orderId)) {
+            throw new IllegalArgumentException("Unknown order: " + orderId);
+        }
+    }
+
     public ShipmentDTO updateShipment(String id, UpdateShipmentRequest request, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to update shipment with ID: {} and data: {}", 
@@ -108,14 +345,27 @@ public class ShipmentService {
             Shipment existingShipment = shipmentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Shipment not found with id: " + id));
             
+            // Tracking number and order can change, so drop the entries under the old values too
+            evictShipmentEntries(existingShipment);
+            Set<String> searchTags = searchTags(existingShipment);
+            if (request.getOrderId() != null && !request.getOrderId().equalsIgnoreCase(existingShipment.getOrderId())) {
+                requireOrder(request.getOrderId());
+            }
             shipmentMapper.updateEntity(request, existingShipment);
             Shipment updatedShipment = shipmentRepository.save(existingShipment);
+            recentShipments.upsert(shipmentMapper.toDTO(updatedShipment));
+            deadlineMonitor.track(deadlineOf(updatedShipment));
+            evictShipmentEntries(updatedShipment);
+            cacheInvalidator.evictTags(CacheTags.shipment(id));
+            // Searches the shipment matched before the update and those it matches now
+            searchTags.addAll(searchTags(updatedShipment));
+            evictSearches(searchTags);
             
             Duration duration = Duration.between(start, Instant.now());
             log.info("[RequestId: {}] Successfully updated shipment in {} ms", 
                     requestId, duration.toMillis());
             
-            return shipmentMapper.toDTO(updatedShipment);
+            return withTrackingEvents(shipmentMapper.toDTO(updatedShipment));
         } catch (Exception e) {
             Duration duration = Duration.between(start, Instant.now());
             log.error("[RequestId: {}] Failed to update shipment after {} ms. Error: {}", 
@@ -124,8 +374,13 @@ public class ShipmentService {
         }
     }
 
-    @CacheEvict(value = {"shipments", "shipment"}, allEntries = true)
-    public ShipmentDTO updateShipmentStatus(String id, String status, String requestId) {
+    /**
+     * Apply a single status update with the same ordering rule as the batch path: the event
+     * happens at the request's timestamp (the server clock when none is given) and only moves
+     * the status if it is newer than the current one; an older update is kept in the history only.
+     */
+    public ShipmentDTO updateShipmentStatus(String id, String status, LocalDateTime timestamp, String location,
+                                            String notes, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to update shipment status with ID: {} to status: {}", 
                 requestId, id, status);
@@ -134,14 +389,28 @@ public class ShipmentService {
             Shipment shipment = shipmentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Shipment not found with id: " + id));
             
-            shipment.setStatus(ShipmentStatus.valueOf(status.toUpperCase()));
-            shipment = shipmentRepository.save(shipment);
+            ShipmentStatus previousStatus = shipment.getStatus();
+            ShipmentStatus newStatus = ShipmentStatus.valueOf(status.toUpperCase());
+            LocalDateTime occurredAt = timestamp != null ? timestamp : LocalDateTime.now();
+            if (shipment.getStatusChangedAt() == null || shipment.getStatusChangedAt().isBefore(occurredAt)) {
+                shipment.setStatus(newStatus);
+                shipment.setStatusChangedAt(occurredAt);
+                shipment = shipmentRepository.save(shipment);
+                statusCounters.recordTransition(previousStatus, shipment.getStatus());
+                recentShipments.upsert(shipmentMapper.toDTO(shipment));
+                deadlineMonitor.track(deadlineOf(shipment));
+            }
+            recordEvent(shipment.getId(), newStatus, "Status changed to " + newStatus, location, notes, occurredAt);
+            // Lists holding the shipment drop out via its tag; lists of the new status gain a member
+            evictShipmentEntries(shipment);
+            cacheInvalidator.evictTags(CacheTags.shipment(id), CacheTags.status("shipmentsByStatus", previousStatus));
+            evictStatusLists(shipment.getStatus());
             
             Duration duration = Duration.between(start, Instant.now());
             log.info("[RequestId: {}] Successfully updated shipment status in {} ms", 
                     requestId, duration.toMillis());
             
-            return shipmentMapper.toDTO(shipment);
+            return withTrackingEvents(shipmentMapper.toDTO(shipment));
         } catch (Exception e) {
             Duration duration = Duration.between(start, Instant.now());
             log.error("[RequestId: {}] Failed to update shipment status after {} ms. Error: {}", 
@@ -150,7 +419,184 @@ public class ShipmentService {
         }
     }
 
-    @CacheEvict(value = {"shipments", "shipment"}, allEntries = true)
+    /**
+     * Ingest a batch of scanner status updates. Updates for the same shipment are coalesced to the
+     * latest by timestamp and applied with one set-based statement that skips shipments whose
+     * current status is newer; every valid update is still appended to the tracking history.
+     */
+    public ShipmentStatusBatchResponse ingestStatusUpdates(List<ShipmentStatusBatchRequest.StatusUpdate> updates,
+                                                           String requestId) {
+        Instant start = Instant.now();
+        log.info("[RequestId: {}] Starting to ingest {} shipment status updates", requestId, updates.size());
+        
+        try {
+            List<ShipmentStatusUpdateResult> results = new ArrayList<>(updates.size());
+            List<ShipmentStatus> statuses = new ArrayList<>(updates.size());
+            Set<String> trackingNumbers = new LinkedHashSet<>();
+            for (int i = 0; i < updates.size(); i++) {
+                ShipmentStatusBatchRequest.StatusUpdate update = updates.get(i);
+                ShipmentStatusUpdateResult result = new ShipmentStatusUpdateResult();
+                result.setIndex(i);
+                results.add(result);
+                ShipmentStatus status = null;
+                String error = validateStatusUpdate(update);
+                if (error == null) {
+                    status = ShipmentStatus.valueOf(update.getStatus().toUpperCase());
+                    trackingNumbers.add(update.getTrackingNumber());
+                } else {
+                    result.setOutcome(ShipmentStatusUpdateResult.REJECTED);
+                    result.setError(error);
+                }
+                result.setTrackingNumber(update != null ? update.getTrackingNumber() : null);
+                statuses.add(status);
+            }
+
+            Map<String, String> shipmentIds = trackingNumbers.isEmpty()
+                    ? Map.of()
+                    : shipmentBatchRepository.findIdsByTrackingNumbers(trackingNumbers);
+
+            // Latest update per shipment; on equal timestamps the later entry in the batch wins
+            Map<String, Integer> latest = new LinkedHashMap<>();
+            List<ShipmentBatchRepository.NewEvent> events = new ArrayList<>();
+            for (int i = 0; i < updates.size(); i++) {
+                if (statuses.get(i) == null) {
+                    continue;
+                }
+                ShipmentStatusBatchRequest.StatusUpdate update = updates.get(i);
+                String shipmentId = shipmentIds.get(update.getTrackingNumber());
+                if (shipmentId == null) {
+                    results.get(i).setOutcome(ShipmentStatusUpdateResult.NOT_FOUND);
+                    continue;
+                }
+                results.get(i).setOutcome(ShipmentStatusUpdateResult.SUPERSEDED);
+                events.add(new ShipmentBatchRepository.NewEvent(shipmentId, statuses.get(i),
+                        "Status changed to " + statuses.get(i), update.getLocation(), update.getNotes(),
+                        update.getTimestamp()));
+                latest.merge(update.getTrackingNumber(), i, (current, candidate) ->
+                        updates.get(candidate).getTimestamp().isBefore(updates.get(current).getTimestamp())
+                                ? current : candidate);
+            }
+
+            List<ShipmentBatchRepository.StatusChange> changes = new ArrayList<>(latest.size());
+            for (int index : latest.values()) {
+                changes.add(new ShipmentBatchRepository.StatusChange(
+                        updates.get(index).getTrackingNumber(), statuses.get(index), updates.get(index).getTimestamp()));
+            }
+            List<ShipmentBatchRepository.ChangedShipment> changed = changes.isEmpty()
+                    ? List.of()
+                    : shipmentBatchRepository.applyStatusChanges(changes);
+            Map<ShipmentStatus, Long> entered = new EnumMap<>(ShipmentStatus.class);
+            Map<ShipmentStatus, Long> left = new EnumMap<>(ShipmentStatus.class);
+            for (ShipmentBatchRepository.ChangedShipment shipment : changed) {
+                results.get(latest.get(shipment.trackingNumber())).setOutcome(ShipmentStatusUpdateResult.APPLIED);
+                if (shipment.previousStatus() != shipment.status()) {
+                    entered.merge(shipment.status(), 1L, Long::sum);
+                    if (shipment.previousStatus() != null) {
+                        left.merge(shipment.previousStatus(), 1L, Long::sum);
+                    }
+                }
+            }
+            statusCounters.recordTransitions(entered, left);
+            refreshRecentShipments(changed);
+            deadlineMonitor.trackAll(changed.stream()
+                    .map(shipment -> new ShipmentDeadline(shipment.id(), shipment.trackingNumber(), shipment.orderId(),
+                            shipment.status(), shipment.expectedDeliveryDate()))
+                    .toList());
+            if (!events.isEmpty()) {
+                shipmentBatchRepository.insertEvents(events);
+            }
+            evictChangedShipments(changed, events);
+
+            ShipmentStatusBatchResponse response = new ShipmentStatusBatchResponse();
+            response.setReceived(updates.size());
+            response.setResults(results);
+            for (ShipmentStatusUpdateResult result : results) {
+                switch (result.getOutcome()) {
+                    case ShipmentStatusUpdateResult.APPLIED -> response.setApplied(response.getApplied() + 1);
+                    case ShipmentStatusUpdateResult.SUPERSEDED -> response.setSuperseded(response.getSuperseded() + 1);
+                    case ShipmentStatusUpdateResult.NOT_FOUND -> response.setNotFound(response.getNotFound() + 1);
+                    default -> response.setRejected(response.getRejected() + 1);
+                }
+            }
+
+            Duration duration = Duration.between(start, Instant.now());
+            log.info("[RequestId: {}] Successfully ingested {} status updates ({} applied) in {} ms", 
+                    requestId, updates.size(), response.getApplied(), duration.toMillis());
+            
+            return response;
+        } catch (Exception e) {
+            Duration duration = Duration.between(start, Instant.now());
+            log.error("[RequestId: {}] Failed to ingest shipment status updates after {} ms. Error: {}", 
+                    requestId, duration.toMillis(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private String validateStatusUpdate(ShipmentStatusBatchRequest.StatusUpdate update) {
+        if (update == null) {
+            return "Update is required";
+        }
+        Set<ConstraintViolation<ShipmentStatusBatchRequest.StatusUpdate>> violations = validator.validate(update);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        try {
+            ShipmentStatus.valueOf(update.getStatus().toUpperCase());
+            return null;
+        } catch (IllegalArgumentException e) {
+            return "Unknown status: " + update.getStatus();
+        }
+    }
+
+    // Only shipments new enough to land in a recent buffer are worth reloading; the rest just leave their old one
+    private void refreshRecentShipments(List<ShipmentBatchRepository.ChangedShipment> changed) {
+        List<String> entering = new ArrayList<>();
+        List<String> leaving = new ArrayList<>();
+        for (ShipmentBatchRepository.ChangedShipment shipment : changed) {
+            if (recentShipments.accepts(shipment.status(), shipment.createdAt(), shipment.id())) {
+                entering.add(shipment.id());
+            } else {
+                leaving.add(shipment.id());
+            }
+        }
+        recentShipments.removeAll(leaving);
+        if (!entering.isEmpty()) {
+            recentShipments.upsertAll(shipmentRepository.findAllById(entering).stream()
+                    .map(shipmentMapper::toDTO)
+                    .toList());
+        }
+    }
+
+    // Point entries and lists of the shipments that changed, batched into one deferred action per cache
+    private void evictChangedShipments(List<ShipmentBatchRepository.ChangedShipment> changed,
+                                       List<ShipmentBatchRepository.NewEvent> events) {
+        Set<String> ids = new HashSet<>();
+        Set<String> trackingNumbers = new HashSet<>();
+        Set<String> tags = new LinkedHashSet<>();
+        for (ShipmentBatchRepository.ChangedShipment shipment : changed) {
+            trackingNumbers.add(shipment.trackingNumber());
+            tags.add(CacheTags.shipmentOrder("shipmentsByOrder", shipment.orderId()));
+            tags.add(CacheTags.status("shipmentsByStatus", shipment.status()));
+            tags.add(CacheTags.status("shipmentsByStatus", shipment.previousStatus()));
+        }
+        // Superseded updates do not change the status but still extend the cached tracking history
+        for (ShipmentBatchRepository.NewEvent event : events) {
+            ids.add(event.shipmentId());
+            tags.add(CacheTags.shipment(event.shipmentId()));
+        }
+        if (!changed.isEmpty()) {
+            tags.add(CacheTags.emptyList("shipmentsByStatus"));
+        }
+        cacheInvalidator.evictAll("shipment", ids);
+        cacheInvalidator.evictAll("shipmentByTracking", trackingNumbers);
+        if (!tags.isEmpty()) {
+            cacheInvalidator.evictTags(tags.toArray(String[]::new));
+        }
+    }
+
     public void deleteShipment(String id, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to delete shipment with ID: {}", requestId, id);
@@ -159,7 +605,16 @@ public class ShipmentService {
             Shipment shipment = shipmentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Shipment not found with id: " + id));
             
+            shipmentEventRepository.deleteByShipmentId(id);
             shipmentRepository.delete(shipment);
+            statusCounters.recordDeleted(shipment.getStatus());
+            recentShipments.remove(id);
+            deadlineMonitor.untrack(id);
+            evictShipmentEntries(shipment);
+            // Every page after the removed shipment shifts, so drop whole lists rather than its own entries
+            cacheInvalidator.evictTags(CacheTags.shipment(id), CacheTags.list("shipments"),
+                    CacheTags.status("shipmentsByStatus", shipment.getStatus()));
+            evictSearches(List.of(shipment));
             Duration duration = Duration.between(start, Instant.now());
             log.info("[RequestId: {}] Successfully deleted shipment in {} ms", 
                     requestId, duration.toMillis());
@@ -171,20 +626,20 @@ public class ShipmentService {
         }
     }
 
-    @Cacheable(value = "shipmentsByOrder", key = "#orderId")
-    public List<ShipmentDTO> getShipmentsByOrder(String orderId, String requestId) {
+    @Transactional(readOnly = true)
+    @Cacheable(value = "shipmentsByOrder", key = "#orderId + '-' + #pageable", sync = true)
+    public Page<ShipmentDTO> getShipmentsByOrder(String orderId, Pageable pageable, String requestId) {
         Instant start = Instant.now();
-        log.info("[RequestId: {}] Starting to fetch shipments for order ID: {}", requestId, orderId);
+        log.info("[RequestId: {}] Starting to fetch shipments for order ID: {} and pagination: {}",
+                requestId, orderId, pageable);
         
         try {
-            List<Shipment> shipments = shipmentRepository.findByOrderId(orderId, Pageable.unpaged()).getContent();
+            Page<Shipment> shipments = shipmentRepository.findByOrderId(orderId, pageable);
             Duration duration = Duration.between(start, Instant.now());
             log.info("[RequestId: {}] Successfully fetched {} shipments in {} ms", 
-                    requestId, shipments.size(), duration.toMillis());
+                    requestId, shipments.getTotalElements(), duration.toMillis());
             
-            return shipments.stream()
-                .map(shipmentMapper::toDTO)
-                .collect(Collectors.toList());
+            return withTrackingEvents(shipments.map(shipmentMapper::toDTO));
         } catch (Exception e) {
             Duration duration = Duration.between(start, Instant.now());
             log.error("[RequestId: {}] Failed to fetch shipments for order after {} ms. Error: {}", 
@@ -193,7 +648,8 @@ public class ShipmentService {
         }
     }
 
-    @Cacheable(value = "shipmentsByStatus", key = "#status + '-' + #pageable")
+    @Transactional(readOnly = true)
+    @Cacheable(value = "shipmentsByStatus", key = "#status + '-' + #pageable", sync = true)
     public Page<ShipmentDTO> getShipmentsByStatus(String status, Pageable pageable, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to fetch shipments with status: {} and pagination: {}", 
@@ -205,7 +661,7 @@ public class ShipmentService {
             log.info("[RequestId: {}] Successfully fetched {} shipments in {} ms", 
                     requestId, shipments.getTotalElements(), duration.toMillis());
             
-            return shipments.map(shipmentMapper::toDTO);
+            return withTrackingEvents(shipments.map(shipmentMapper::toDTO));
         } catch (Exception e) {
             Duration duration = Duration.between(start, Instant.now());
             log.error("[RequestId: {}] Failed to fetch shipments by status after {} ms. Error: {}", 
@@ -214,7 +670,39 @@ public class ShipmentService {
         }
     }
 
-    @Cacheable(value = "shipmentByTracking", key = "#trackingNumber")
+    @Transactional(readOnly = true)
+    @Cacheable(value = "shipmentsByStatus", key = "#status + '-after:' + #after + '-' + #pageSize", sync = true)
+    public Slice<ShipmentDTO> getShipmentsByStatusAfter(String status, String after, int pageSize, String requestId) {
+        Instant start = Instant.now();
+        log.info("[RequestId: {}] Starting to fetch shipments with status: {} after cursor: {} with page size: {}", 
+                requestId, status, after, pageSize);
+        
+        try {
+            ShipmentStatus shipmentStatus = ShipmentStatus.valueOf(status.toUpperCase());
+            Pageable pageable = PageRequest.of(0, pageSize);
+            Slice<Shipment> shipments;
+            if (after == null || after.isEmpty()) {
+                shipments = shipmentRepository.findLatestByStatus(shipmentStatus, pageable);
+            } else {
+                KeysetCursor cursor = KeysetCursor.decode(after);
+                shipments = shipmentRepository.findLatestByStatusBefore(
+                        shipmentStatus, cursor.getCreatedAt(), cursor.getId(), pageable);
+            }
+            Duration duration = Duration.between(start, Instant.now());
+            log.info("[RequestId: {}] Successfully fetched {} shipments in {} ms", 
+                    requestId, shipments.getNumberOfElements(), duration.toMillis());
+            
+            return withTrackingEvents(shipments.map(shipmentMapper::toDTO));
+        } catch (Exception e) {
+            Duration duration = Duration.between(start, Instant.now());
+            log.error("[RequestId: {}] Failed to fetch shipments by status after cursor after {} ms. Error: {}", 
+                    requestId, duration.toMillis(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(value = "shipmentByTracking", key = "#trackingNumber", sync = true)
     public ShipmentDTO getShipmentByTrackingNumber(String trackingNumber, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to fetch shipment with tracking number: {}", requestId, trackingNumber);
@@ -230,7 +718,7 @@ public class ShipmentService {
             log.info("[RequestId: {}] Successfully fetched shipment in {} ms", 
                     requestId, duration.toMillis());
             
-            return shipmentMapper.toDTO(shipment);
+            return withTrackingEvents(shipmentMapper.toDTO(shipment));
         } catch (Exception e) {
             Duration duration = Duration.between(start, Instant.now());
             log.error("[RequestId: {}] Failed to fetch shipment by tracking number after {} ms. Error: {}", 
@@ -239,19 +727,35 @@ public class ShipmentService {
         }
     }
 
-    @Cacheable(value = "shipmentSearch", key = "#query + '-' + #pageable")
+    @Transactional(readOnly = true)
+    @Cacheable(value = SEARCH_CACHE, key = "#query + '-' + #pageable", sync = true)
     public Page<ShipmentDTO> searchShipments(String query, Pageable pageable, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to search shipments with query: {} and pagination: {}", 
                 requestId, query, pageable);
         
         try {
-            Page<Shipment> shipments = shipmentRepository.search(query, pageable);
+            String term = query == null ? "" : query.trim();
+            // Results have a fixed order, so only the page position of the request is used
+            Pageable position = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            Page<Shipment> shipments;
+            String matchTag;
+            if (term.length() < MIN_TRIGRAM_LENGTH) {
+                // Trigram indexes cannot serve shorter patterns, which would fall back to a full table scan
+                String prefix = term.toUpperCase(Locale.ROOT);
+                shipments = shipmentRepository.searchByTrackingPrefix(escapeLike(prefix) + "%", position);
+                matchTag = CacheTags.searchPrefix(SEARCH_CACHE, prefix);
+            } else {
+                shipments = shipmentRepository.search(term, "%" + escapeLike(term) + "%", position);
+                matchTag = CacheTags.searchTrigram(SEARCH_CACHE,
+                        term.toLowerCase(Locale.ROOT).substring(0, MIN_TRIGRAM_LENGTH));
+            }
             Duration duration = Duration.between(start, Instant.now());
             log.info("[RequestId: {}] Successfully fetched {} shipments in {} ms", 
                     requestId, shipments.getTotalElements(), duration.toMillis());
             
-            return shipments.map(shipmentMapper::toDTO);
+            return withTrackingEvents(new SearchPage<>(shipments.map(shipmentMapper::toDTO).getContent(),
+                    shipments.getPageable(), shipments.getTotalElements(), matchTag));
         } catch (Exception e) {
             Duration duration = Duration.between(start, Instant.now());
             log.error("[RequestId: {}] Failed to search shipments after {} ms. Error: {}", 
@@ -260,23 +764,24 @@ public class ShipmentService {
         }
     }
 
-    @Cacheable(value = "recentShipments", key = "#status + '-' + #limit")
+    /**
+     * Latest shipments in a status, newest first, from the in-memory recent buffer. Entries are
+     * summaries and carry no tracking history.
+     */
+    @Transactional(readOnly = true)
     public List<ShipmentDTO> getRecentShipmentsByStatus(String status, int limit, String requestId) {
         Instant start = Instant.now();
         log.info("[RequestId: {}] Starting to fetch recent shipments with status: {} and limit: {}", 
                 requestId, status, limit);
         
         try {
-            Pageable pageable = Pageable.ofSize(limit).withPage(0);
-            Page<Shipment> shipmentPage = shipmentRepository.findTopByStatusOrderByCreatedAtDesc(
-                    ShipmentStatus.valueOf(status.toUpperCase()), pageable);
-            Shipment shipment = shipmentPage.getContent().stream().findFirst().orElse(null);
+            List<ShipmentDTO> shipments = recentShipments.getRecent(ShipmentStatus.valueOf(status.toUpperCase()), limit);
             
             Duration duration = Duration.between(start, Instant.now());
-            log.info("[RequestId: {}] Successfully fetched recent shipment in {} ms", 
-                    requestId, duration.toMillis());
+            log.info("[RequestId: {}] Successfully fetched {} recent shipments in {} ms", 
+                    requestId, shipments.size(), duration.toMillis());
             
-            return shipment != null ? List.of(shipmentMapper.toDTO(shipment)) : List.of();
+            return shipments;
         } catch (Exception e) {
             Duration duration = Duration.between(start, Instant.now());
             log.error("[RequestId: {}] Failed to fetch recent shipments after {} ms. Error: {}", 
@@ -285,4 +790,128 @@ public class ShipmentService {
         }
     }
 
-} 
\ No newline at end of file
+    // Served from in-memory counters, so dashboards can poll it freely
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StatusCountsDTO getStatusCounts(String requestId) {
+        StatusCountsDTO counts = statusCounters.toDTO();
+        log.debug("[RequestId: {}] Served shipment status counts (total {})", requestId, counts.getTotal());
+        return counts;
+    }
+
+    /**
+     * Undelivered shipments past their expected delivery date, most overdue first, from the
+     * in-memory deadline monitor
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<LateShipmentResponse> getLateShipments(int limit, String requestId) {
+        List<LateShipmentResponse> late = deadlineMonitor.getLate(limit);
+        log.debug("[RequestId: {}] Served {} of {} late shipments", requestId, late.size(), deadlineMonitor.getLateCount());
+        return late;
+    }
+
+    private static ShipmentDeadline deadlineOf(Shipment shipment) {
+        return new ShipmentDeadline(shipment.getId(), shipment.getTrackingNumber(), shipment.getOrderId(),
+                shipment.getStatus(), shipment.getExpectedDeliveryDate());
+    }
+
+    private ShipmentEvent recordEvent(Shipment shipment, String description, String location, String notes) {
+        return recordEvent(shipment.getId(), shipment.getStatus(), description, location, notes, LocalDateTime.now());
+    }
+
+    private ShipmentEvent recordEvent(String shipmentId, ShipmentStatus status, String description, String location,
+                                      String notes, LocalDateTime occurredAt) {
+        ShipmentEvent event = new ShipmentEvent();
+        event.setShipmentId(shipmentId);
+        event.setStatus(status);
+        event.setDescription(description);
+        event.setLocation(location);
+        event.setNotes(notes);
+        event.setOccurredAt(occurredAt);
+        return shipmentEventRepository.save(event);
+    }
+
+    private ShipmentDTO withTrackingEvents(ShipmentDTO shipment) {
+        shipment.setTrackingEvents(shipmentEventRepository.findByShipmentIdOrderByOccurredAtAsc(shipment.getId())
+                .stream()
+                .map(shipmentMapper::toTrackingEventDTO)
+                .collect(Collectors.toList()));
+        return shipment;
+    }
+
+    // Loads the histories of all shipments in a page with one query instead of one per shipment
+    private <T extends Iterable<ShipmentDTO>> T withTrackingEvents(T shipments) {
+        List<String> ids = new ArrayList<>();
+        for (ShipmentDTO shipment : shipments) {
+            ids.add(shipment.getId());
+        }
+        if (ids.isEmpty()) {
+            return shipments;
+        }
+        Map<String, List<ShipmentDTO.TrackingEventDTO>> eventsByShipment = new HashMap<>();
+        for (ShipmentEvent event : shipmentEventRepository.findByShipmentIdInOrderByOccurredAtAsc(ids)) {
+            eventsByShipment.computeIfAbsent(event.getShipmentId(), ignored -> new ArrayList<>())
+                    .add(shipmentMapper.toTrackingEventDTO(event));
+        }
+        for (ShipmentDTO shipment : shipments) {
+            shipment.setTrackingEvents(eventsByShipment.getOrDefault(shipment.getId(), new ArrayList<>()));
+        }
+        return shipments;
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private void evictShipmentEntries(Shipment shipment) {
+        cacheInvalidator.evict("shipment", shipment.getId());
+        cacheInvalidator.evict("shipmentByTracking", shipment.getTrackingNumber());
+        // Pages of the order's shipments; an order's first shipment joins an empty page
+        cacheInvalidator.evictTags(
+                CacheTags.shipmentOrder("shipmentsByOrder", shipment.getOrderId()),
+                CacheTags.emptyList("shipmentsByOrder"));
+    }
+
+    private void evictSearches(Collection<Shipment> shipments) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (Shipment shipment : shipments) {
+            tags.addAll(searchTags(shipment));
+        }
+        evictSearches(tags);
+    }
+
+    private void evictSearches(Set<String> tags) {
+        // A large batch touches most trigrams anyway, and one clear is cheaper than thousands of tag removals
+        if (tags.size() > MAX_SEARCH_TAGS) {
+            cacheInvalidator.clear(SEARCH_CACHE);
+        } else {
+            cacheInvalidator.evictTags(tags.toArray(String[]::new));
+        }
+    }
+
+    // Tags of every search the shipment can match: each trigram of its searched fields (see
+    // ShipmentRepository.search), and each tracking-number prefix shorter than a trigram
+    private static Set<String> searchTags(Shipment shipment) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (String field : new String[] {shipment.getTrackingNumber(), shipment.getOrderId(),
+                shipment.getDestinationAddress()}) {
+            if (field == null) {
+                continue;
+            }
+            String lower = field.toLowerCase(Locale.ROOT);
+            for (int i = 0; i + MIN_TRIGRAM_LENGTH <= lower.length(); i++) {
+                tags.add(CacheTags.searchTrigram(SEARCH_CACHE, lower.substring(i, i + MIN_TRIGRAM_LENGTH)));
+            }
+        }
+        String tracking = shipment.getTrackingNumber() != null ? shipment.getTrackingNumber().toUpperCase(Locale.ROOT) : "";
+        for (int length = 0; length < MIN_TRIGRAM_LENGTH && length <= tracking.length(); length++) {
+            tags.add(CacheTags.searchPrefix(SEARCH_CACHE, tracking.substring(0, length)));
+        }
+        return tags;
+    }
+
+    private void evictStatusLists(ShipmentStatus status) {
+        cacheInvalidator.evictTags(
+                CacheTags.status("shipmentsByStatus", status),
+                CacheTags.emptyList("shipmentsByStatus"));
+    }
+}
@@ -6,6 +6,7 @@ import com.logistics.entity.User;
 import com.logistics.exception.ResourceNotFoundException;
 import com.logistics.mapper.UserMapper;
 import com.logistics.repository.UserRepository;
+import com.logistics.security.TokenRevocationRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,6 +14,9 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
+import java.util.Set;
+
 @Slf4j
 @Service
 public class UserService {
@@ -20,11 +24,14 @@ public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final AuthService authService;
+    private final TokenRevocationRegistry revocationRegistry;
 
-    public UserService(UserRepository userRepository, UserMapper userMapper, AuthService authService) {
+    public UserService(UserRepository userRepository, UserMapper userMapper, AuthService authService,
+                       TokenRevocationRegistry revocationRegistry) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.authService = authService;
+        this.revocationRegistry = revocationRegistry;
     }
 
     @Transactional(readOnly = true)
@@ -85,8 +92,19 @@ public class UserService {
             }
         }
 
+        Set<String> previousRoles = new HashSet<>(userToUpdate.getRoles());
+        Set<String> previousPermissions = new HashSet<>(userToUpdate.getPermissions());
+        boolean previouslyActive = userToUpdate.isActive();
+
         userMapper.updateEntity(userToUpdate, request);
         User updatedUser = userRepository.save(userToUpdate);
+
+        // Tokens embed roles and permissions, so outstanding ones must stop working when those change
+        if (!previousRoles.equals(updatedUser.getRoles()) ||
+            !previousPermissions.equals(updatedUser.getPermissions()) ||
+            previouslyActive != updatedUser.isActive()) {
+            revocationRegistry.revokeAll(updatedUser.getEmail());
+        }
         return userMapper.toDTO(updatedUser);
     }
 
@@ -116,5 +134,6 @@ public class UserService {
         }
 
         userRepository.deleteById(id);
+        revocationRegistry.revokeAll(userToDelete.getEmail());
     }
 } 
\ No newline at end of file
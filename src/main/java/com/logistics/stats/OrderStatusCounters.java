@@ -0,0 +1,23 @@
+package com.logistics.stats;
+
+import com.logistics.entity.Order.OrderStatus;
+import com.logistics.repository.OrderRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class OrderStatusCounters extends StatusCounters<OrderStatus> {
+
+    private final OrderRepository orderRepository;
+
+    public OrderStatusCounters(OrderRepository orderRepository) {
+        super(OrderStatus.class);
+        this.orderRepository = orderRepository;
+    }
+
+    @Override
+    protected List<Object[]> countByStatus() {
+        return orderRepository.countByStatus();
+    }
+}
@@ -0,0 +1,256 @@
+package com.logistics.stats;
+
+import com.logistics.util.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Newest rows per status, bounded to {@code capacity} each, so "latest N in status X" is a walk
+ * over at most N entries with no database round trip. Buffers are seeded from one ranked query
+ * on startup and periodically (to pick up writes made on other pods) and updated in place after
+ * each local write commits. Local writes that commit while a reseed query runs are replayed onto
+ * its result before the swap, so the reseed does not roll them back.
+ *
+ * <p>A buffer that has ever dropped its oldest entry no longer knows what lies beyond it; reads
+ * asking for more than it holds then go to the database instead of returning a short list.
+ */
+@Slf4j
+public abstract class RecentByStatus<E extends Enum<E>, T> {
+
+    private static final Comparator<Position> NEWEST_FIRST = Comparator
+            .comparing(Position::createdAt, Comparator.reverseOrder())
+            .thenComparing(Position::id, Comparator.reverseOrder());
+
+    private final Class<E> statusType;
+    private final int capacity;
+    private volatile Buffers buffers;
+    // Local writes applied since the running reseed started; null when none is running. Guarded by this
+    private List<Consumer<Buffers>> pending;
+    private final Object reseedLock = new Object();
+
+    protected RecentByStatus(Class<E> statusType, int capacity) {
+        this.statusType = statusType;
+        this.capacity = capacity;
+        // Until the first seed every read goes to the database
+        this.buffers = new Buffers(true);
+    }
+
+    /**
+     * Up to {@code perStatus} newest rows of every status, in a single query
+     */
+    protected abstract List<T> loadRecent(int perStatus);
+
+    /**
+     * The newest {@code limit} rows of one status, for reads the buffer cannot answer
+     */
+    protected abstract List<T> loadRecent(E status, int limit);
+
+    protected abstract String idOf(T value);
+
+    protected abstract E statusOf(T value);
+
+    protected abstract LocalDateTime createdAtOf(T value);
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reseed();
+    }
+
+    @Scheduled(fixedDelayString = "${app.recent.reseed-interval:PT5M}",
+               initialDelayString = "${app.recent.reseed-interval:PT5M}")
+    public void scheduledReseed() {
+        reseed();
+    }
+
+    public void reseed() {
+        synchronized (reseedLock) {
+            Instant start = Instant.now();
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            try {
+                Buffers fresh = new Buffers(false);
+                for (T value : loadRecent(capacity)) {
+                    fresh.put(value);
+                }
+                // A status with fewer rows than the capacity is held completely
+                for (E status : statusType.getEnumConstants()) {
+                    Buffer buffer = fresh.buffer(status);
+                    buffer.truncated = buffer.entries.size() >= capacity;
+                }
+                synchronized (this) {
+                    pending.forEach(change -> change.accept(fresh));
+                    buffers = fresh;
+                }
+                log.info("Seeded recent {} buffers with {} entries in {} ms", statusType.getSimpleName(),
+                        fresh.size(), Duration.between(start, Instant.now()).toMillis());
+            } catch (Exception e) {
+                // Keep serving the previous buffers; the next scheduled run retries
+                log.error("Failed to seed recent {} buffers: {}", statusType.getSimpleName(), e.getMessage(), e);
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Insert or move a row once the current transaction commits
+     */
+    public void upsert(T value) {
+        TransactionHooks.afterCommit(() -> apply(current -> current.put(value)));
+    }
+
+    public void upsertAll(Collection<T> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> apply(current -> {
+            for (T value : values) {
+                current.put(value);
+            }
+        }));
+    }
+
+    public void remove(String id) {
+        TransactionHooks.afterCommit(() -> apply(current -> current.remove(id)));
+    }
+
+    public void removeAll(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> apply(current -> {
+            for (String id : ids) {
+                current.remove(id);
+            }
+        }));
+    }
+
+    private synchronized void apply(Consumer<Buffers> change) {
+        change.accept(buffers);
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+
+    /**
+     * Whether a row of this status and creation time would be kept, i.e. whether it is worth
+     * loading to {@link #upsert}
+     */
+    public boolean accepts(E status, LocalDateTime createdAt, String id) {
+        return buffers.buffer(status).accepts(new Position(id, createdAt));
+    }
+
+    /**
+     * Newest first. Served from memory unless the buffer holds fewer rows than requested while
+     * more may exist.
+     */
+    public List<T> getRecent(E status, int limit) {
+        Buffer buffer = buffers.buffer(status);
+        List<T> result = new ArrayList<>(Math.min(limit, capacity));
+        if (limit <= capacity) {
+            for (T value : buffer.entries.values()) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                result.add(value);
+            }
+            if (!buffer.truncated) {
+                return result;
+            }
+        }
+        return loadRecent(status, limit);
+    }
+
+    private record Position(String id, LocalDateTime createdAt) {
+    }
+
+    private final class Buffer {
+
+        private final ConcurrentSkipListMap<Position, T> entries = new ConcurrentSkipListMap<>(NEWEST_FIRST);
+        private volatile boolean truncated;
+
+        Buffer(boolean truncated) {
+            this.truncated = truncated;
+        }
+
+        // Rows older than the oldest kept entry fall in the unknown part of a truncated buffer
+        boolean accepts(Position position) {
+            if (!truncated) {
+                return true;
+            }
+            Map.Entry<Position, T> oldest = entries.lastEntry();
+            return oldest != null && NEWEST_FIRST.compare(position, oldest.getKey()) < 0;
+        }
+    }
+
+    private final class Buffers {
+
+        private final Map<E, Buffer> byStatus;
+        private final Map<String, Map.Entry<E, Position>> positions = new ConcurrentHashMap<>();
+
+        Buffers(boolean truncated) {
+            byStatus = new EnumMap<>(statusType);
+            for (E status : statusType.getEnumConstants()) {
+                byStatus.put(status, new Buffer(truncated));
+            }
+        }
+
+        Buffer buffer(E status) {
+            return byStatus.get(status);
+        }
+
+        int size() {
+            return positions.size();
+        }
+
+        synchronized void put(T value) {
+            String id = idOf(value);
+            E status = statusOf(value);
+            remove(id);
+            if (status == null || createdAtOf(value) == null) {
+                return;
+            }
+            Buffer buffer = byStatus.get(status);
+            Position position = new Position(id, createdAtOf(value));
+            if (!buffer.accepts(position)) {
+                return;
+            }
+            buffer.entries.put(position, value);
+            positions.put(id, Map.entry(status, position));
+            if (buffer.entries.size() > capacity) {
+                Map.Entry<Position, T> dropped = buffer.entries.pollLastEntry();
+                positions.remove(dropped.getKey().id());
+                buffer.truncated = true;
+            }
+        }
+
+        synchronized void remove(String id) {
+            Map.Entry<E, Position> previous = positions.remove(id);
+            if (previous != null) {
+                byStatus.get(previous.getKey()).entries.remove(previous.getValue());
+            }
+        }
+    }
+}
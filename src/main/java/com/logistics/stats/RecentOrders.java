@@ -0,0 +1,66 @@
+package com.logistics.stats;
+
+import com.logistics.dto.OrderDTO;
+import com.logistics.entity.Order.OrderStatus;
+import com.logistics.mapper.OrderMapper;
+import com.logistics.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Newest orders per status.
+ */
+@Component
+public class RecentOrders extends RecentByStatus<OrderStatus, OrderDTO> {
+
+    private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+
+    public RecentOrders(OrderRepository orderRepository,
+                        OrderMapper orderMapper,
+                        @Value("${app.recent.capacity:100}") int capacity) {
+        super(OrderStatus.class, capacity);
+        this.orderRepository = orderRepository;
+        this.orderMapper = orderMapper;
+    }
+
+    @Override
+    protected List<OrderDTO> loadRecent(int perStatus) {
+        String statuses = Arrays.stream(OrderStatus.values()).map(Enum::name).collect(Collectors.joining(","));
+        List<String> ids = orderRepository.findRecentIdsPerStatus(statuses, perStatus);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return orderRepository.findAllWithItemsByIdIn(ids).stream()
+                .map(orderMapper::toDTO)
+                .toList();
+    }
+
+    @Override
+    protected List<OrderDTO> loadRecent(OrderStatus status, int limit) {
+        return orderRepository.findByStatusOrderByCreatedAtDescIdDesc(status, PageRequest.of(0, limit)).stream()
+                .map(orderMapper::toDTO)
+                .toList();
+    }
+
+    @Override
+    protected String idOf(OrderDTO value) {
+        return value.getId();
+    }
+
+    @Override
+    protected OrderStatus statusOf(OrderDTO value) {
+        return value.getStatus();
+    }
+
+    @Override
+    protected LocalDateTime createdAtOf(OrderDTO value) {
+        return value.getCreatedAt();
+    }
+}
@@ -0,0 +1,66 @@
+package com.logistics.stats;
+
+import com.logistics.dto.ShipmentDTO;
+import com.logistics.entity.ShipmentStatus;
+import com.logistics.mapper.ShipmentMapper;
+import com.logistics.repository.ShipmentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Newest shipments per status. Entries are summaries without tracking history.
+ */
+@Component
+public class RecentShipments extends RecentByStatus<ShipmentStatus, ShipmentDTO> {
+
+    private final ShipmentRepository shipmentRepository;
+    private final ShipmentMapper shipmentMapper;
+
+    public RecentShipments(ShipmentRepository shipmentRepository,
+                           ShipmentMapper shipmentMapper,
+                           @Value("${app.recent.capacity:100}") int capacity) {
+        super(ShipmentStatus.class, capacity);
+        this.shipmentRepository = shipmentRepository;
+        this.shipmentMapper = shipmentMapper;
+    }
+
+    @Override
+    protected List<ShipmentDTO> loadRecent(int perStatus) {
+        String statuses = Arrays.stream(ShipmentStatus.values()).map(Enum::name).collect(Collectors.joining(","));
+        List<String> ids = shipmentRepository.findRecentIdsPerStatus(statuses, perStatus);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return shipmentRepository.findAllById(ids).stream()
+                .map(shipmentMapper::toDTO)
+                .toList();
+    }
+
+    @Override
+    protected List<ShipmentDTO> loadRecent(ShipmentStatus status, int limit) {
+        return shipmentRepository.findLatestByStatus(status, PageRequest.of(0, limit)).stream()
+                .map(shipmentMapper::toDTO)
+                .toList();
+    }
+
+    @Override
+    protected String idOf(ShipmentDTO value) {
+        return value.getId();
+    }
+
+    @Override
+    protected ShipmentStatus statusOf(ShipmentDTO value) {
+        return value.getStatus();
+    }
+
+    @Override
+    protected LocalDateTime createdAtOf(ShipmentDTO value) {
+        return value.getCreatedAt();
+    }
+}
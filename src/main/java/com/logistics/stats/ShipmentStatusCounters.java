@@ -0,0 +1,23 @@
+package com.logistics.stats;
+
+import com.logistics.entity.ShipmentStatus;
+import com.logistics.repository.ShipmentRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class ShipmentStatusCounters extends StatusCounters<ShipmentStatus> {
+
+    private final ShipmentRepository shipmentRepository;
+
+    public ShipmentStatusCounters(ShipmentRepository shipmentRepository) {
+        super(ShipmentStatus.class);
+        this.shipmentRepository = shipmentRepository;
+    }
+
+    @Override
+    protected List<Object[]> countByStatus() {
+        return shipmentRepository.countByStatus();
+    }
+}
@@ -0,0 +1,161 @@
+package com.logistics.stats;
+
+import com.logistics.dto.StatusCountsDTO;
+import com.logistics.util.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-status row counts kept in memory so dashboards can poll them at any rate without a
+ * {@code count(*)}. Writes adjust the counters after their transaction commits; a periodic
+ * GROUP BY replaces them wholesale, which corrects drift from writes made on other pods or
+ * from direct database changes. Changes applied while that query runs are also collected
+ * separately and replayed onto the fresh counts, so the swap does not drop them.
+ */
+@Slf4j
+public abstract class StatusCounters<E extends Enum<E>> {
+
+    private final Class<E> statusType;
+    private final E[] statuses;
+    private volatile AtomicLongArray counts;
+    private volatile LocalDateTime reconciledAt;
+    // Changes applied since the running reconcile started; null when none is running. Guarded by this
+    private AtomicLongArray pending;
+    private final Object reconcileLock = new Object();
+
+    protected StatusCounters(Class<E> statusType) {
+        this.statusType = statusType;
+        this.statuses = statusType.getEnumConstants();
+        this.counts = new AtomicLongArray(statuses.length);
+    }
+
+    /**
+     * Rows of (status, count) straight from the database
+     */
+    protected abstract List<Object[]> countByStatus();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval:PT1M}",
+               initialDelayString = "${app.stats.reconcile-interval:PT1M}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Replace the counters with a fresh GROUP BY. A change that commits while the query runs may
+     * or may not be in its result; it is replayed either way, so at worst a write racing the
+     * query's snapshot is counted twice until the next run rather than lost.
+     */
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            Instant start = Instant.now();
+            synchronized (this) {
+                pending = new AtomicLongArray(statuses.length);
+            }
+            try {
+                AtomicLongArray fresh = new AtomicLongArray(statuses.length);
+                for (Object[] row : countByStatus()) {
+                    if (row[0] != null) {
+                        fresh.set(statusType.cast(row[0]).ordinal(), ((Number) row[1]).longValue());
+                    }
+                }
+                long drift = 0;
+                synchronized (this) {
+                    AtomicLongArray previous = counts;
+                    for (int i = 0; i < statuses.length; i++) {
+                        fresh.addAndGet(i, pending.get(i));
+                        drift += Math.abs(fresh.get(i) - previous.get(i));
+                    }
+                    counts = fresh;
+                }
+                reconciledAt = LocalDateTime.now();
+                log.info("Reconciled {} status counters (drift {}) in {} ms",
+                        statusType.getSimpleName(), drift, Duration.between(start, Instant.now()).toMillis());
+            } catch (Exception e) {
+                // Keep serving the incrementally maintained counts; the next run retries
+                log.error("Failed to reconcile {} status counters: {}", statusType.getSimpleName(), e.getMessage(), e);
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+            }
+        }
+    }
+
+    public void recordCreated(E status) {
+        recordTransition(null, status);
+    }
+
+    public void recordDeleted(E status) {
+        recordTransition(status, null);
+    }
+
+    /**
+     * Move one row between statuses once the current transaction commits; null means no row
+     */
+    public void recordTransition(E from, E to) {
+        if (from == to) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            if (from != null) {
+                add(from, -1);
+            }
+            if (to != null) {
+                add(to, 1);
+            }
+        });
+    }
+
+    public void recordTransitions(Map<E, Long> created, Map<E, Long> removed) {
+        TransactionHooks.afterCommit(() -> {
+            created.forEach((status, count) -> add(status, count));
+            removed.forEach((status, count) -> add(status, -count));
+        });
+    }
+
+    private synchronized void add(E status, long delta) {
+        counts.addAndGet(status.ordinal(), delta);
+        if (pending != null) {
+            pending.addAndGet(status.ordinal(), delta);
+        }
+    }
+
+    public Map<E, Long> getCounts() {
+        AtomicLongArray current = counts;
+        Map<E, Long> result = new EnumMap<>(statusType);
+        for (E status : statuses) {
+            result.put(status, Math.max(0, current.get(status.ordinal())));
+        }
+        return result;
+    }
+
+    public StatusCountsDTO toDTO() {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<E, Long> entry : getCounts().entrySet()) {
+            byStatus.put(entry.getKey().name(), entry.getValue());
+            total += entry.getValue();
+        }
+        StatusCountsDTO dto = new StatusCountsDTO();
+        dto.setCounts(byStatus);
+        dto.setTotal(total);
+        dto.setReconciledAt(reconciledAt);
+        return dto;
+    }
+}
@@ -0,0 +1,96 @@
+-- Schema as it stood before migrations were introduced. Existing databases are baselined at this
+-- version (spring.flyway.baseline-on-migrate) and skip this script.
+
+CREATE TABLE users (
+    id          VARCHAR(255) PRIMARY KEY,
+    email       VARCHAR(255) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    first_name  VARCHAR(255) NOT NULL,
+    last_name   VARCHAR(255) NOT NULL,
+    is_active   BOOLEAN      NOT NULL,
+    last_login  TIMESTAMP(6),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE user_roles (
+    user_id VARCHAR(255) NOT NULL REFERENCES users (id),
+    role    VARCHAR(255)
+);
+
+CREATE TABLE user_permissions (
+    user_id    VARCHAR(255) NOT NULL REFERENCES users (id),
+    permission VARCHAR(255)
+);
+
+CREATE TABLE inventory_items (
+    id               VARCHAR(255) PRIMARY KEY,
+    name             VARCHAR(255)   NOT NULL,
+    description      VARCHAR(1000),
+    quantity         INTEGER,
+    unit_price       NUMERIC(38, 2),
+    category         VARCHAR(255)   NOT NULL,
+    location         VARCHAR(255)   NOT NULL,
+    sku              VARCHAR(255)   NOT NULL,
+    minimum_quantity INTEGER,
+    created_at       TIMESTAMP(6)   NOT NULL,
+    updated_at       TIMESTAMP(6)   NOT NULL,
+    version          BIGINT
+);
+
+CREATE UNIQUE INDEX idx_inventory_sku ON inventory_items (sku);
+CREATE INDEX idx_inventory_category ON inventory_items (category);
+CREATE INDEX idx_inventory_name ON inventory_items (name);
+CREATE INDEX idx_inventory_quantity ON inventory_items (quantity);
+
+CREATE TABLE orders (
+    id               VARCHAR(255) PRIMARY KEY,
+    customer_id      VARCHAR(255)   NOT NULL,
+    customer_name    VARCHAR(255)   NOT NULL,
+    status           VARCHAR(255)   NOT NULL,
+    total_amount     NUMERIC(38, 2) NOT NULL,
+    shipping_address VARCHAR(255),
+    billing_address  VARCHAR(255),
+    notes            VARCHAR(255),
+    created_at       TIMESTAMP(6)   NOT NULL,
+    updated_at       TIMESTAMP(6)   NOT NULL,
+    version          BIGINT
+);
+
+CREATE TABLE order_items (
+    order_id     VARCHAR(255)   NOT NULL REFERENCES orders (id),
+    product_id   VARCHAR(255)   NOT NULL,
+    product_name VARCHAR(255)   NOT NULL,
+    quantity     INTEGER        NOT NULL,
+    unit_price   NUMERIC(38, 2) NOT NULL,
+    total_price  NUMERIC(38, 2) NOT NULL
+);
+
+CREATE TABLE shipments (
+    id                     VARCHAR(255) PRIMARY KEY,
+    order_id               VARCHAR(255) NOT NULL,
+    tracking_number        VARCHAR(255) NOT NULL,
+    status                 VARCHAR(255) NOT NULL,
+    origin_address         VARCHAR(255) NOT NULL,
+    destination_address    VARCHAR(255) NOT NULL,
+    recipient_name         VARCHAR(255),
+    expected_delivery_date TIMESTAMP(6) NOT NULL,
+    actual_delivery_date   TIMESTAMP(6),
+    created_at             TIMESTAMP(6) NOT NULL,
+    updated_at             TIMESTAMP(6) NOT NULL,
+    version                BIGINT,
+    CONSTRAINT uk_shipments_tracking_number UNIQUE (tracking_number)
+);
+
+CREATE TABLE shipment_items (
+    id          VARCHAR(255) PRIMARY KEY,
+    shipment_id VARCHAR(255)     NOT NULL REFERENCES shipments (id),
+    item_id     VARCHAR(255)     NOT NULL,
+    item_name   VARCHAR(255),
+    quantity    INTEGER          NOT NULL,
+    unit_price  DOUBLE PRECISION NOT NULL,
+    created_at  TIMESTAMP(6)     NOT NULL,
+    updated_at  TIMESTAMP(6)     NOT NULL,
+    version     BIGINT
+);
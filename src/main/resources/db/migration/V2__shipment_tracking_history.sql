@@ -0,0 +1,35 @@
+-- Persisted tracking history and the time the current status took effect.
+-- Idempotent because databases that ran with ddl-auto=update may already have both.
+
+ALTER TABLE shipments ADD COLUMN IF NOT EXISTS status_changed_at TIMESTAMP(6);
+
+CREATE TABLE IF NOT EXISTS shipment_events (
+    id          VARCHAR(255) PRIMARY KEY,
+    shipment_id VARCHAR(255)  NOT NULL,
+    status      VARCHAR(255)  NOT NULL,
+    description VARCHAR(255)  NOT NULL,
+    location    VARCHAR(255),
+    notes       VARCHAR(1000),
+    occurred_at TIMESTAMP(6)  NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_shipment_events_shipment_occurred ON shipment_events (shipment_id, occurred_at);
+
+-- Backfill for shipments created before history was recorded. Only the creation and the
+-- current status are known; updated_at is the best available time for the latter.
+UPDATE shipments
+SET status_changed_at = CASE WHEN status = 'PENDING' THEN created_at ELSE updated_at END
+WHERE status_changed_at IS NULL;
+
+WITH without_history AS (
+    SELECT s.id, s.status, s.created_at, s.status_changed_at
+    FROM shipments s
+    WHERE NOT EXISTS (SELECT 1 FROM shipment_events e WHERE e.shipment_id = s.id)
+)
+INSERT INTO shipment_events (id, shipment_id, status, description, location, notes, occurred_at)
+SELECT gen_random_uuid()::text, id, 'PENDING', 'Shipment created', NULL, 'Backfilled', created_at
+FROM without_history
+UNION ALL
+SELECT gen_random_uuid()::text, id, status, 'Status changed to ' || status, NULL, 'Backfilled', status_changed_at
+FROM without_history
+WHERE status <> 'PENDING';
@@ -0,0 +1,113 @@
+-- One index per repository query path. Built CONCURRENTLY so writes continue during the build;
+-- IF NOT EXISTS keeps the script safe on databases where ddl-auto created some of them already.
+
+-- A CONCURRENTLY build that fails or is cancelled leaves an INVALID index behind, and IF NOT EXISTS
+-- would then skip it for good. Drop invalid leftovers of this script first so a rerun rebuilds them.
+DO $$
+DECLARE
+    leftover record;
+BEGIN
+    FOR leftover IN
+        SELECT c.relname
+        FROM pg_index i
+        JOIN pg_class c ON c.oid = i.indexrelid
+        JOIN pg_namespace n ON n.oid = c.relnamespace
+        WHERE NOT i.indisvalid
+          AND n.nspname = current_schema()
+          AND c.relname IN (
+            'idx_shipments_order_id',
+            'idx_shipments_status_created',
+            'idx_shipments_created',
+            'idx_shipments_expected_delivery',
+            'idx_shipment_items_shipment_id',
+            'idx_orders_customer_created',
+            'idx_orders_status_created',
+            'idx_orders_created',
+            'idx_order_items_order_id',
+            'idx_user_roles_user_id',
+            'idx_user_roles_role',
+            'idx_user_permissions_user_id',
+            'idx_inventory_low_stock',
+            'idx_shipments_tracking_number_trgm',
+            'idx_shipments_order_id_trgm',
+            'idx_shipments_destination_address_trgm',
+            'idx_orders_customer_name_trgm',
+            'idx_inventory_name_trgm',
+            'idx_inventory_description_trgm',
+            'idx_inventory_category_trgm',
+            'idx_inventory_sku_trgm')
+    LOOP
+        EXECUTE format('DROP INDEX %I', leftover.relname);
+    END LOOP;
+END $$;
+
+-- Shipments
+-- findByOrderId, existsByOrderId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_shipments_order_id
+    ON shipments (order_id);
+-- findByStatus, findByStatusOrderByCreatedAtDesc, findLatestByStatus*, findRecentIdsPerStatus, countByStatus
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_shipments_status_created
+    ON shipments (status, created_at DESC, id DESC);
+-- findLatest*, streamAll
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_shipments_created
+    ON shipments (created_at DESC, id DESC);
+-- findOpenDeadlinesBefore
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_shipments_expected_delivery
+    ON shipments (expected_delivery_date);
+-- Loading a shipment's items
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_shipment_items_shipment_id
+    ON shipment_items (shipment_id);
+
+-- Orders
+-- findByCustomerId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_customer_created
+    ON orders (customer_id, created_at DESC);
+-- findByStatus, findByStatusOrderByCreatedAtDesc*, findRecentIdsPerStatus, countByStatus
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_status_created
+    ON orders (status, created_at DESC, id DESC);
+-- findAll sorted by createdAt, streamAll
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_created
+    ON orders (created_at DESC, id DESC);
+-- Loading an order's items
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_order_items_order_id
+    ON order_items (order_id);
+
+-- Users
+-- Loading roles and permissions, countByRolesContaining
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_roles_user_id
+    ON user_roles (user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_roles_role
+    ON user_roles (role);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_permissions_user_id
+    ON user_permissions (user_id);
+
+-- Inventory
+-- findLowStockItems: the predicate matches the query exactly, so only low-stock rows are indexed
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inventory_low_stock
+    ON inventory_items (sku) WHERE quantity <= minimum_quantity;
+
+-- Substring search. Trigram GIN indexes serve LIKE/ILIKE '%term%', so search cost follows the
+-- number of matches rather than the table size.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- ShipmentRepository.search
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_shipments_tracking_number_trgm
+    ON shipments USING gin (tracking_number gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_shipments_order_id_trgm
+    ON shipments USING gin (order_id gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_shipments_destination_address_trgm
+    ON shipments USING gin (destination_address gin_trgm_ops);
+
+-- OrderRepository.search
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_customer_name_trgm
+    ON orders USING gin (lower(customer_name) gin_trgm_ops);
+
+-- InventoryItemRepository.search, InventoryRepository.search
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inventory_name_trgm
+    ON inventory_items USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inventory_description_trgm
+    ON inventory_items USING gin (lower(description) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inventory_category_trgm
+    ON inventory_items USING gin (lower(category) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inventory_sku_trgm
+    ON inventory_items USING gin (lower(sku) gin_trgm_ops);
@@ -0,0 +1,71 @@
+-- Store ids as native uuid (16 bytes) instead of 36-character varchar. Existing ids keep their
+-- values, so external references stay valid; new rows get time-ordered UUIDv7 keys from the
+-- application. Each table is rewritten once under an exclusive lock: run in a maintenance window.
+
+-- shipments.order_id becomes a uuid foreign key to orders. Stop with the offending rows listed
+-- rather than failing halfway through the casts on a value that is not a UUID or an order.
+DO $$
+DECLARE
+    invalid text;
+BEGIN
+    SELECT string_agg(s.id || ' -> ' || s.order_id, ', ')
+    INTO invalid
+    FROM (SELECT id, order_id FROM shipments
+          WHERE order_id !~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$'
+             OR NOT EXISTS (SELECT 1 FROM orders o WHERE o.id = shipments.order_id)
+          LIMIT 20) s;
+    IF invalid IS NOT NULL THEN
+        RAISE EXCEPTION 'shipments.order_id must reference an existing order by UUID; fix these shipments first: %',
+            invalid;
+    END IF;
+END $$;
+
+-- Foreign keys must be dropped while both sides change type. Names differ between databases
+-- created by this script history and by ddl-auto, so look them up; they are recreated below.
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN
+        SELECT conrelid::regclass AS table_name, conname
+        FROM pg_constraint
+        WHERE contype = 'f'
+          AND confrelid IN ('users'::regclass, 'orders'::regclass, 'shipments'::regclass)
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.table_name, fk.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE users ALTER COLUMN id TYPE uuid USING id::uuid;
+ALTER TABLE user_roles ALTER COLUMN user_id TYPE uuid USING user_id::uuid;
+ALTER TABLE user_permissions ALTER COLUMN user_id TYPE uuid USING user_id::uuid;
+
+ALTER TABLE inventory_items ALTER COLUMN id TYPE uuid USING id::uuid;
+
+ALTER TABLE orders ALTER COLUMN id TYPE uuid USING id::uuid;
+ALTER TABLE order_items ALTER COLUMN order_id TYPE uuid USING order_id::uuid;
+
+-- The trigram index on order_id cannot be kept on a uuid column; search matches its text form
+DROP INDEX IF EXISTS idx_shipments_order_id_trgm;
+ALTER TABLE shipments
+    ALTER COLUMN id TYPE uuid USING id::uuid,
+    ALTER COLUMN order_id TYPE uuid USING order_id::uuid;
+CREATE INDEX idx_shipments_order_id_trgm
+    ON shipments USING gin (CAST(order_id AS text) gin_trgm_ops);
+ALTER TABLE shipment_items
+    ALTER COLUMN id TYPE uuid USING id::uuid,
+    ALTER COLUMN shipment_id TYPE uuid USING shipment_id::uuid;
+ALTER TABLE shipment_events
+    ALTER COLUMN id TYPE uuid USING id::uuid,
+    ALTER COLUMN shipment_id TYPE uuid USING shipment_id::uuid;
+
+ALTER TABLE user_roles
+    ADD CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE user_permissions
+    ADD CONSTRAINT fk_user_permissions_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE order_items
+    ADD CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id);
+ALTER TABLE shipment_items
+    ADD CONSTRAINT fk_shipment_items_shipment FOREIGN KEY (shipment_id) REFERENCES shipments (id);
+ALTER TABLE shipments
+    ADD CONSTRAINT fk_shipments_order FOREIGN KEY (order_id) REFERENCES orders (id);
@@ -0,0 +1,10 @@
+-- Deadline alerts already raised, so each is raised once across restarts and replicas.
+
+CREATE TABLE shipment_deadline_alerts (
+    id                     uuid PRIMARY KEY,
+    shipment_id            uuid         NOT NULL,
+    expected_delivery_date TIMESTAMP(6) NOT NULL,
+    type                   VARCHAR(16)  NOT NULL,
+    announced_at           TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_shipment_deadline_alerts UNIQUE (shipment_id, expected_delivery_date, type)
+);
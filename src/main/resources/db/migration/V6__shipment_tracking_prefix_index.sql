@@ -0,0 +1,20 @@
+-- ShipmentRepository.searchByTrackingPrefix: search terms shorter than a trigram are matched as a
+-- case-insensitive tracking-number prefix, which text_pattern_ops lets a btree range scan serve.
+
+-- Same recovery as V3: drop an INVALID leftover of a failed CONCURRENTLY build so a rerun rebuilds it
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM pg_index i
+        JOIN pg_class c ON c.oid = i.indexrelid
+        JOIN pg_namespace n ON n.oid = c.relnamespace
+        WHERE NOT i.indisvalid
+          AND n.nspname = current_schema()
+          AND c.relname = 'idx_shipments_tracking_number_upper_prefix') THEN
+        DROP INDEX idx_shipments_tracking_number_upper_prefix;
+    END IF;
+END $$;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_shipments_tracking_number_upper_prefix
+    ON shipments (upper(tracking_number) text_pattern_ops);
@@ -0,0 +1,94 @@
+package com.logistics.aspect;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(OutputCaptureExtension.class)
+class LoggingAspectTest {
+
+    private LoggingAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        TracingProperties properties = new TracingProperties();
+        properties.setSampleRate(0);
+        properties.setSlowThreshold(Duration.ZERO);
+        properties.setMaxPayloadChars(100);
+        aspect = new LoggingAspect(new ObjectMapper(), properties);
+    }
+
+    @Test
+    void describesCollectionsBySize(CapturedOutput output) throws Throwable {
+        List<Integer> ids = new ArrayList<>(IntStream.range(0, 100_000).boxed().toList());
+
+        aspect.logMethodExecution(joinPoint("findAll", new Object[]{ids}, () -> ids));
+
+        assertThat(output.getOut()).contains("with parameters: [ArrayList(size=100000)] returned ArrayList(size=100000)");
+    }
+
+    @Test
+    void stopsSerializingAtTheLimit(CapturedOutput output) throws Throwable {
+        AtomicInteger serialized = new AtomicInteger();
+        Iterable<Integer> rows = () -> IntStream.range(0, 1_000_000).peek(i -> serialized.incrementAndGet()).iterator();
+        Payload payload = new Payload("x".repeat(1_000_000), rows);
+
+        aspect.logMethodExecution(joinPoint("load", new Object[0], () -> payload));
+
+        String slowLine = output.getOut().lines().filter(line -> line.contains("Slow call")).findFirst().orElseThrow();
+        assertThat(slowLine).contains("... (truncated)").hasSizeLessThan(10_000);
+        assertThat(serialized).hasValue(0);
+    }
+
+    @Test
+    void logsSlowCallsOnlyAtTheOutermostCall(CapturedOutput output) throws Throwable {
+        ProceedingJoinPoint inner = joinPoint("inner", new Object[0], () -> "done");
+
+        aspect.logMethodExecution(joinPoint("outer", new Object[0], () -> aspect.logMethodExecution(inner)));
+
+        assertThat(output.getOut()).contains("Slow call: Target.outer()").doesNotContain("Slow call: Target.inner()");
+    }
+
+    private static ProceedingJoinPoint joinPoint(String name, Object[] args, Call body) throws Throwable {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(Target.class.getDeclaredMethod(name));
+        when(signature.getDeclaringType()).thenReturn(Target.class);
+        when(signature.getName()).thenReturn(name);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(joinPoint.proceed()).thenAnswer(invocation -> body.run());
+        return joinPoint;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        Object run() throws Throwable;
+    }
+
+    public record Payload(String text, Iterable<Integer> rows) {
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Target {
+        void findAll() {}
+        void load() {}
+        void outer() {}
+        void inner() {}
+    }
+}
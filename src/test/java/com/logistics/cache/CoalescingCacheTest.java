@@ -0,0 +1,110 @@
+package com.logistics.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.logistics.dto.ShipmentDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The production stack below {@code @Cacheable}: coalescing, tagging, then Caffeine over a
+ * shared L2. Each test lets a write's eviction land while a load is running, and checks the
+ * value read before the write is returned to its caller but not cached.
+ */
+class CoalescingCacheTest {
+
+    private static final String CACHE = "shipments";
+
+    private final CacheTagIndex tagIndex = new InMemoryCacheTagIndex(Duration.ofMinutes(30));
+    private final ConcurrentMapCache remote = new ConcurrentMapCache(CACHE);
+    private final TwoLevelCache twoLevel = new TwoLevelCache(CACHE, Caffeine.newBuilder().build(), remote,
+            mock(CacheInvalidationPublisher.class));
+
+    @Test
+    void missLoadRacingAKeyEvictionIsNotCached() {
+        CoalescingCache cache = coalescing(null);
+
+        ShipmentDTO loaded = cache.get("s1", () -> {
+            cache.evict("s1");
+            return shipment("s1", "before-write");
+        });
+
+        assertThat(loaded.getCarrier()).isEqualTo("before-write");
+        assertNotCached(cache, "s1");
+    }
+
+    @Test
+    void missLoadRacingATagEvictionIsNotCached() {
+        CoalescingCache cache = coalescing(null);
+
+        ShipmentDTO loaded = cache.get("by-tracking-T1", () -> {
+            // The entry is not registered yet, so the tag eviction finds nothing to evict
+            assertThat(tagIndex.removeTag(CacheTags.shipment("s1"))).isEmpty();
+            return shipment("s1", "before-write");
+        });
+
+        assertThat(loaded.getCarrier()).isEqualTo("before-write");
+        assertNotCached(cache, "by-tracking-T1");
+    }
+
+    @Test
+    void earlyRefreshRacingAnEvictionIsNotCached() {
+        TwoLevelCacheProperties.EarlyRefreshSpec alwaysRefresh = new TwoLevelCacheProperties.EarlyRefreshSpec();
+        alwaysRefresh.setTtl(Duration.ofMinutes(1));
+        alwaysRefresh.setBeta(1e12);
+        CoalescingCache cache = coalescing(alwaysRefresh);
+        cache.get("s1", () -> shipment("s1", "first"));
+
+        ShipmentDTO refreshed = cache.get("s1", () -> {
+            cache.evict("s1");
+            return shipment("s1", "before-write");
+        });
+
+        assertThat(refreshed.getCarrier()).isEqualTo("before-write");
+        assertThat(cache.getEarlyRefreshes()).isEqualTo(1);
+        assertNotCached(cache, "s1");
+    }
+
+    @Test
+    void loadWithoutARaceIsCached() {
+        CoalescingCache cache = coalescing(null);
+
+        cache.get("s1", () -> shipment("s1", "current"));
+
+        assertThat(cache.get("s1", ShipmentDTO.class).getCarrier()).isEqualTo("current");
+        assertThat(remote.get("s1")).isNotNull();
+        assertThat(cache.getLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void loaderFailuresReachTheCallerUnwrapped() {
+        CoalescingCache cache = coalescing(null);
+        IllegalStateException failure = new IllegalStateException("database down");
+
+        assertThatThrownBy(() -> cache.get("s1", () -> {
+            throw failure;
+        })).isInstanceOf(Cache.ValueRetrievalException.class).hasCause(failure);
+    }
+
+    private CoalescingCache coalescing(TwoLevelCacheProperties.EarlyRefreshSpec earlyRefresh) {
+        return new CoalescingCache(new TaggingCache(twoLevel, tagIndex), earlyRefresh, Duration.ofSeconds(5));
+    }
+
+    private void assertNotCached(CoalescingCache cache, String key) {
+        assertThat(cache.get(key)).isNull();
+        assertThat(remote.get(key)).isNull();
+    }
+
+    private static ShipmentDTO shipment(String id, String carrier) {
+        ShipmentDTO shipment = new ShipmentDTO();
+        shipment.setId(id);
+        shipment.setCarrier(carrier);
+        return shipment;
+    }
+}
@@ -0,0 +1,79 @@
+package com.logistics.cache;
+
+import com.logistics.dto.ShipmentDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaggingCacheTest {
+
+    private static final String CACHE = "shipments";
+
+    private final CacheTagIndex tagIndex = new InMemoryCacheTagIndex(Duration.ofMinutes(30));
+
+    @Test
+    void putKeepsTheEntryWhenNoTagWasRemoved() {
+        ConcurrentMapCache store = new ConcurrentMapCache(CACHE);
+        TaggingCache cache = new TaggingCache(store, tagIndex);
+
+        cache.put("s1", shipment("s1"));
+
+        assertThat(store.get("s1")).isNotNull();
+        assertThat(tagIndex.removeTag(CacheTags.shipment("s1")))
+                .containsExactly(new CacheTagIndex.CacheEntryRef(CACHE, "s1"));
+    }
+
+    @Test
+    void putEvictsAnEntryWhoseTagWasRemovedBeforeItWasRegistered() {
+        // The write's tag eviction lands after the value is stored but before its tags are registered
+        ConcurrentMapCache store = new RacingStore(() -> tagIndex.removeTag(CacheTags.shipment("s1")));
+        TaggingCache cache = new TaggingCache(store, tagIndex);
+
+        cache.put("s1", shipment("s1"));
+
+        assertThat(store.get("s1")).isNull();
+    }
+
+    @Test
+    void putIfAbsentEvictsAnEntryWhoseTagWasRemovedBeforeItWasRegistered() {
+        ConcurrentMapCache store = new RacingStore(() -> tagIndex.removeTag(CacheTags.shipment("s1")));
+        TaggingCache cache = new TaggingCache(store, tagIndex);
+
+        assertThat(cache.putIfAbsent("s1", shipment("s1"))).isNull();
+
+        assertThat(store.get("s1")).isNull();
+    }
+
+    private static ShipmentDTO shipment(String id) {
+        ShipmentDTO shipment = new ShipmentDTO();
+        shipment.setId(id);
+        return shipment;
+    }
+
+    // Runs the eviction right after each store, where a concurrent write could interleave
+    private static final class RacingStore extends ConcurrentMapCache {
+
+        private final Runnable eviction;
+
+        private RacingStore(Runnable eviction) {
+            super(CACHE);
+            this.eviction = eviction;
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            super.put(key, value);
+            eviction.run();
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            ValueWrapper existing = super.putIfAbsent(key, value);
+            eviction.run();
+            return existing;
+        }
+    }
+}
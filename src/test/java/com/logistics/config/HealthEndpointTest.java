@@ -0,0 +1,48 @@
+package com.logistics.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+/**
+ * The health endpoint is public for probes, but only admins see its components.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:health;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class HealthEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void anonymousCallersOnlySeeTheStatus() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(jsonPath("$.status").exists())
+                .andExpect(jsonPath("$.components").doesNotExist());
+    }
+
+    @Test
+    void usersOnlySeeTheStatus() throws Exception {
+        mockMvc.perform(get("/actuator/health").with(user("user").roles("USER")))
+                .andExpect(jsonPath("$.status").exists())
+                .andExpect(jsonPath("$.components").doesNotExist());
+    }
+
+    @Test
+    void adminsSeeComponentDetails() throws Exception {
+        mockMvc.perform(get("/actuator/health").with(user("admin").roles("ADMIN")))
+                .andExpect(jsonPath("$.components.db.details.database").value("H2"));
+    }
+}
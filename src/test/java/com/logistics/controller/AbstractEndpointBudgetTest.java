@@ -0,0 +1,497 @@
+package com.logistics.controller;
+
+import com.logistics.entity.InventoryItem;
+import com.logistics.entity.Order;
+import com.logistics.entity.Shipment;
+import com.logistics.entity.ShipmentEvent;
+import com.logistics.entity.ShipmentItem;
+import com.logistics.entity.ShipmentStatus;
+import com.logistics.entity.User;
+import com.logistics.repository.InventoryItemRepository;
+import com.logistics.repository.OrderRepository;
+import com.logistics.repository.ShipmentEventRepository;
+import com.logistics.repository.ShipmentRepository;
+import com.logistics.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+
+/**
+ * SQL statement and p95 latency budgets per endpoint. Each endpoint is called with empty caches
+ * against a seeded database; the statement count is read from the same
+ * {@code http.server.requests.sql.statements} metric production publishes, so an N+1 or an
+ * unbounded load fails the build instead of showing up on a dashboard.
+ *
+ * <p>Every handler mapping must have a budget or be listed in {@link #UNBUDGETED}, so a new endpoint
+ * cannot ship unmeasured. Subclasses choose the database: endpoints whose queries are Postgres-only
+ * (trigram search, LATERAL, UPDATE ... FROM / RETURNING) are skipped on H2.
+ */
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class AbstractEndpointBudgetTest {
+
+    private static final int ROWS = 60;
+    private static final int WARMUP = 3;
+    private static final int SAMPLES = 20;
+    private static final Duration DEFAULT_P95 = Duration.ofMillis(500);
+    private static final String ACCOUNT = "budget@example.com";
+    private static final String PASSWORD = "budget123";
+
+    // Handler patterns deliberately left without a budget; each must still be mapped
+    private static final Set<String> UNBUDGETED = Set.of(
+            // Spring Boot's error page, reached by forwarding a failed request rather than called
+            "/error");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private ShipmentEventRepository shipmentEventRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    private final AtomicInteger sequence = new AtomicInteger();
+    private boolean onPostgres;
+    private String shipmentId;
+    private String orderId;
+    private String inventoryItemId;
+    private String userId;
+
+    @BeforeAll
+    void seed() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            onPostgres = connection.getMetaData().getDatabaseProductName().equals("PostgreSQL");
+        }
+        transactionTemplate.executeWithoutResult(tx -> {
+            for (int i = 0; i < ROWS; i++) {
+                Order order = orderRepository.save(order(i));
+                Shipment shipment = shipmentRepository.save(shipment(i, order.getId()));
+                shipmentEventRepository.save(event(shipment.getId()));
+                InventoryItem item = inventoryItemRepository.save(inventoryItem(i));
+                userRepository.save(account(i));
+                if (i == 0) {
+                    orderId = order.getId();
+                    shipmentId = shipment.getId();
+                    inventoryItemId = item.getId();
+                }
+            }
+            userId = userRepository.save(account(ROWS)).getId();
+            User admin = account(ROWS + 1);
+            admin.setEmail(ACCOUNT);
+            admin.setPassword(passwordEncoder.encode(PASSWORD));
+            admin.setRoles(Set.of("ADMIN"));
+            userRepository.save(admin);
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> endpointsStayWithinBudget() {
+        return budgets().map(this::measure);
+    }
+
+    @Test
+    void everyEndpointHasABudget() {
+        Set<String> patterns = new TreeSet<>();
+        Set<String> endpoints = new TreeSet<>();
+        handlerMapping.getHandlerMethods().keySet().forEach(mapping -> mapping.getPatternValues().forEach(pattern -> {
+            patterns.add(pattern);
+            if (!UNBUDGETED.contains(pattern)) {
+                mapping.getMethodsCondition().getMethods().forEach(method -> endpoints.add(method + " " + pattern));
+            }
+        }));
+        Set<String> budgeted = budgets().map(budget -> budget.method() + " " + budget.uri())
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        assertThat(patterns).as("unbudgeted patterns that are no longer mapped").containsAll(UNBUDGETED);
+        assertThat(budgeted).as("budgeted endpoints").isEqualTo(endpoints);
+    }
+
+    private Stream<Budget> budgets() {
+        return Stream.of(
+                get("/shipments/{id}", 2, () -> "/shipments/" + shipmentId),
+                get("/shipments", 3, () -> "/shipments?page=1&size=20"),
+                get("/shipments/order/{orderId}", 2, () -> "/shipments/order/" + orderId),
+                get("/shipments/status/{status}", 3, () -> "/shipments/status/IN_TRANSIT?page=1&size=20"),
+                get("/shipments/tracking/{trackingNumber}", 2, () -> "/shipments/tracking/TRK-0"),
+                get("/shipments/stats", 0, () -> "/shipments/stats"),
+                get("/shipments/late", 0, () -> "/shipments/late"),
+                get("/shipments/recent/{status}", 0, () -> "/shipments/recent/IN_TRANSIT").onlyOnPostgres(),
+                get("/shipments/search", 3, () -> "/shipments/search?query=TRK-1").onlyOnPostgres(),
+                get("/orders/{id}", 2, () -> "/orders/" + orderId),
+                get("/orders", 3, () -> "/orders?page=1&size=20"),
+                get("/orders/customer/{customerId}", 2, () -> "/orders/customer/CUST-1"),
+                get("/orders/status/{status}", 3, () -> "/orders/status/PENDING?page=1&size=20"),
+                get("/orders/search", 3, () -> "/orders/search?query=customer"),
+                get("/orders/stats", 0, () -> "/orders/stats"),
+                get("/inventory/{id}", 1, () -> "/inventory/" + inventoryItemId),
+                get("/inventory", 2, () -> "/inventory?page=1&size=20"),
+                get("/inventory/low-stock", 1, () -> "/inventory/low-stock"),
+                get("/inventory/search", 2, () -> "/inventory/search?query=widget"),
+                get("/users", 4, () -> "/users?page=1&size=20"),
+                get("/orders/recent/{status}", 0, () -> "/orders/recent/PENDING").onlyOnPostgres(),
+                get("/inventory/suggest", 0, () -> "/inventory/suggest?prefix=Wid"),
+                get("/users/{id}", 1, () -> "/users/" + userId),
+                get("/auth/me", 3, () -> "/auth/me"),
+                get("/admin/cache/stats", 0, () -> "/admin/cache/stats"),
+                get("/admin/datasource/stats", 0, () -> "/admin/datasource/stats"),
+                get("/admin/tracing/stats", 0, () -> "/admin/tracing/stats"),
+                get("/export/shipments", 1, () -> "/export/shipments").streamed(),
+                get("/export/orders", 1, () -> "/export/orders").streamed(),
+                get("/export/inventory", 1, () -> "/export/inventory").streamed(),
+                send(HttpMethod.POST, "/shipments", 4, () -> "/shipments", this::newShipment),
+                send(HttpMethod.POST, "/shipments/bulk", 5, () -> "/shipments/bulk", this::bulkShipments),
+                send(HttpMethod.PUT, "/shipments/{id}", 6, () -> "/shipments/" + shipmentId, this::shipmentUpdate),
+                send(HttpMethod.PUT, "/shipments/{id}/status", 4,
+                        () -> "/shipments/" + shipmentId + "/status?status=OUT_FOR_DELIVERY", null),
+                // The batch writes go through JdbcTemplate and are not counted; the budget covers the lookups
+                send(HttpMethod.POST, "/shipments/status/batch", 5,
+                        () -> "/shipments/status/batch", this::statusBatch).onlyOnPostgres(),
+                send(HttpMethod.DELETE, "/shipments/{id}", 5, () -> "/shipments/" + newShipmentRow(), null),
+                send(HttpMethod.POST, "/orders", 2, () -> "/orders", this::order),
+                send(HttpMethod.PUT, "/orders/{id}", 4, () -> "/orders/" + orderId, this::order),
+                send(HttpMethod.PATCH, "/orders/{id}/status", 2,
+                        () -> "/orders/" + orderId + "/status?status=PENDING", null),
+                send(HttpMethod.DELETE, "/orders/{id}", 4, () -> "/orders/" + newOrderRow(), null),
+                send(HttpMethod.POST, "/inventory", 1, () -> "/inventory", this::newInventoryItem),
+                send(HttpMethod.PUT, "/inventory/{id}", 1, () -> "/inventory/" + inventoryItemId,
+                        this::inventoryItemUpdate),
+                send(HttpMethod.PUT, "/inventory/{id}/quantity", 1,
+                        () -> "/inventory/" + inventoryItemId + "/quantity", () -> "{\"quantity\": 3}"),
+                send(HttpMethod.PATCH, "/inventory/{id}/quantity/adjust", 3,
+                        () -> "/inventory/" + inventoryItemId + "/quantity/adjust", () -> "{\"delta\": 1}")
+                        .onlyOnPostgres(),
+                send(HttpMethod.DELETE, "/inventory/{id}", 2, () -> "/inventory/" + newInventoryRow(), null),
+                // The user writes also load the caller with its roles and permissions
+                send(HttpMethod.POST, "/users", 7, () -> "/users", this::newUser),
+                send(HttpMethod.PUT, "/users/{id}", 9, () -> "/users/" + userId, this::userUpdate),
+                send(HttpMethod.DELETE, "/users/{id}", 7, () -> "/users/" + newUserRow(), null),
+                send(HttpMethod.POST, "/auth/login", 5, () -> "/auth/login", this::login),
+                send(HttpMethod.POST, "/auth/logout", 0, () -> "/auth/logout", null),
+                send(HttpMethod.POST, "/dev/admin", 4, () -> "/dev/admin", this::newAdmin)
+        );
+    }
+
+    private DynamicTest measure(Budget budget) {
+        return DynamicTest.dynamicTest(budget.method() + " " + budget.uri(), () -> {
+            assumeTrue(onPostgres || !budget.postgresOnly(), "needs Postgres");
+
+            for (int i = 0; i < WARMUP; i++) {
+                call(budget, prepare(budget));
+            }
+            long[] latencies = new long[SAMPLES];
+            int maxStatements = 0;
+            for (int i = 0; i < SAMPLES; i++) {
+                MockHttpServletRequestBuilder request = prepare(budget);
+                double statementsBefore = statements(budget);
+                long start = System.nanoTime();
+                call(budget, request);
+                latencies[i] = System.nanoTime() - start;
+                maxStatements = Math.max(maxStatements, (int) (statements(budget) - statementsBefore));
+            }
+            Arrays.sort(latencies);
+            Duration p95 = Duration.ofNanos(latencies[(int) Math.ceil(SAMPLES * 0.95) - 1]);
+
+            assertThat(maxStatements).as("SQL statements of %s %s", budget.method(), budget.uri())
+                    .isLessThanOrEqualTo(budget.maxStatements());
+            assertThat(p95).as("p95 latency of %s %s", budget.method(), budget.uri())
+                    .isLessThanOrEqualTo(budget.p95());
+        });
+    }
+
+    // Every call misses the cache, so the budget covers the database path. Rows the call consumes
+    // are created here, before the clock starts
+    private MockHttpServletRequestBuilder prepare(Budget budget) {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        MockHttpServletRequestBuilder builder = request(budget.method(), budget.path().get())
+                .with(user(ACCOUNT).roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON);
+        if (budget.body() != null) {
+            builder.content(budget.body().get());
+        }
+        return builder;
+    }
+
+    private void call(Budget budget, MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (budget.streaming()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        assertThat(result.getResponse().getStatus()).as("status of %s %s: %s", budget.method(), budget.uri(),
+                result.getResponse().getContentAsString()).isBetween(200, 299);
+    }
+
+    private double statements(Budget budget) {
+        return meterRegistry.find("http.server.requests.sql.statements")
+                .tag("method", budget.method().name())
+                .tag("uri", budget.uri())
+                .summaries().stream()
+                .mapToDouble(DistributionSummary::totalAmount)
+                .sum();
+    }
+
+    private static Budget get(String uri, int maxStatements, Supplier<String> path) {
+        return new Budget(HttpMethod.GET, uri, path, null, maxStatements, DEFAULT_P95, false, false);
+    }
+
+    private static Budget send(HttpMethod method, String uri, int maxStatements, Supplier<String> path,
+                               Supplier<String> body) {
+        return new Budget(method, uri, path, body, maxStatements, DEFAULT_P95, false, false);
+    }
+
+    private String newShipment() {
+        int n = sequence.incrementAndGet();
+        return """
+                {"orderId": "%s", "trackingNumber": "NEW-%d", "originAddress": "Origin",
+                 "destinationAddress": "Destination", "recipientName": "Recipient",
+                 "expectedDeliveryDate": "%s",
+                 "items": [{"itemId": "ITEM-1", "itemName": "Item", "quantity": 1, "unitPrice": 2.5}]}
+                """.formatted(orderId, n, LocalDateTime.now().plusDays(3));
+    }
+
+    private String bulkShipments() {
+        StringBuilder shipments = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            shipments.append(i == 0 ? "" : ",").append(newShipment());
+        }
+        return "{\"shipments\": [" + shipments + "]}";
+    }
+
+    private String shipmentUpdate() {
+        return """
+                {"orderId": "%s", "trackingNumber": "TRK-0", "originAddress": "Origin",
+                 "destinationAddress": "Destination %d", "expectedDeliveryDate": "%s",
+                 "items": [{"itemId": "ITEM-1", "itemName": "Item", "quantity": 1, "unitPrice": 2.5}]}
+                """.formatted(orderId, sequence.incrementAndGet(), LocalDateTime.now().plusDays(3));
+    }
+
+    private String order() {
+        return """
+                {"customerId": "CUST-1", "customerName": "Customer", "status": "PENDING", "totalAmount": 20,
+                 "items": [{"productId": "PROD-1", "productName": "Product", "quantity": 2, "unitPrice": 10,
+                            "totalPrice": 20}]}
+                """;
+    }
+
+    private String newInventoryItem() {
+        return """
+                {"name": "Gadget", "quantity": 5, "unitPrice": 1.5, "category": "Gadgets", "location": "B-1",
+                 "sku": "NEW-SKU-%d", "minimumQuantity": 1}
+                """.formatted(sequence.incrementAndGet());
+    }
+
+    private String inventoryItemUpdate() {
+        return """
+                {"name": "Widget 0", "unitPrice": 1.5, "category": "Widgets", "location": "A-0", "sku": "SKU-0",
+                 "minimumQuantity": 2}
+                """;
+    }
+
+    private String newUser() {
+        return """
+                {"email": "new%d@example.com", "password": "secret123", "firstName": "New", "lastName": "User",
+                 "roles": ["USER"], "permissions": ["shipments:read"]}
+                """.formatted(sequence.incrementAndGet());
+    }
+
+    private String userUpdate() {
+        return """
+                {"email": "user%d@example.com", "password": "secret123", "firstName": "First", "lastName": "Last",
+                 "roles": ["USER"], "permissions": ["shipments:read"]}
+                """.formatted(ROWS);
+    }
+
+    private String login() {
+        return """
+                {"email": "%s", "password": "%s"}
+                """.formatted(ACCOUNT, PASSWORD);
+    }
+
+    private String newAdmin() {
+        return """
+                {"email": "admin%d@example.com", "password": "secret123", "firstName": "New", "lastName": "Admin",
+                 "secretKey": "your-dev-secret-key"}
+                """.formatted(sequence.incrementAndGet());
+    }
+
+    private String newShipmentRow() {
+        return transactionTemplate.execute(tx ->
+                shipmentRepository.save(shipment(ROWS + sequence.incrementAndGet(), orderId)).getId());
+    }
+
+    private String newOrderRow() {
+        return transactionTemplate.execute(tx -> orderRepository.save(order(0)).getId());
+    }
+
+    private String newInventoryRow() {
+        return transactionTemplate.execute(tx ->
+                inventoryItemRepository.save(inventoryItem(ROWS + sequence.incrementAndGet())).getId());
+    }
+
+    private String newUserRow() {
+        return transactionTemplate.execute(tx ->
+                userRepository.save(account(ROWS + 2 + sequence.incrementAndGet())).getId());
+    }
+
+    private String statusBatch() {
+        LocalDateTime timestamp = LocalDateTime.now();
+        StringBuilder updates = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            updates.append(i == 0 ? "" : ",").append("""
+                    {"trackingNumber": "TRK-%d", "status": "OUT_FOR_DELIVERY", "timestamp": "%s"}
+                    """.formatted(i, timestamp));
+        }
+        return "{\"updates\": [" + updates + "]}";
+    }
+
+    private record Budget(HttpMethod method, String uri, Supplier<String> path, Supplier<String> body,
+                          int maxStatements, Duration p95, boolean postgresOnly, boolean streaming) {
+
+        Budget onlyOnPostgres() {
+            return new Budget(method, uri, path, body, maxStatements, p95, true, streaming);
+        }
+
+        // The body is written on another thread after the handler returns; its statements are counted
+        // when the asynchronous dispatch completes the request
+        Budget streamed() {
+            return new Budget(method, uri, path, body, maxStatements, p95, postgresOnly, true);
+        }
+    }
+
+    private static Order order(int i) {
+        Order order = new Order();
+        order.setCustomerId("CUST-" + (i % 10));
+        order.setCustomerName("Customer " + i);
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setTotalAmount(BigDecimal.valueOf(20));
+        for (int item = 0; item < 2; item++) {
+            Order.OrderItem orderItem = new Order.OrderItem();
+            orderItem.setProductId("PROD-" + item);
+            orderItem.setProductName("Product " + item);
+            orderItem.setQuantity(1);
+            orderItem.setUnitPrice(BigDecimal.TEN);
+            orderItem.setTotalPrice(BigDecimal.TEN);
+            order.getItems().add(orderItem);
+        }
+        return order;
+    }
+
+    private static Shipment shipment(int i, String orderId) {
+        Shipment shipment = new Shipment();
+        shipment.setOrderId(orderId);
+        shipment.setTrackingNumber("TRK-" + i);
+        shipment.setStatus(ShipmentStatus.IN_TRANSIT);
+        shipment.setOriginAddress("Origin " + i);
+        shipment.setDestinationAddress("Destination " + i);
+        shipment.setExpectedDeliveryDate(LocalDateTime.now().plusDays(3));
+        shipment.setStatusChangedAt(LocalDateTime.now());
+        for (int item = 0; item < 2; item++) {
+            ShipmentItem shipmentItem = new ShipmentItem();
+            shipmentItem.setItemId("ITEM-" + item);
+            shipmentItem.setItemName("Item " + item);
+            shipmentItem.setQuantity(1);
+            shipment.addItem(shipmentItem);
+        }
+        return shipment;
+    }
+
+    private static ShipmentEvent event(String shipmentId) {
+        ShipmentEvent event = new ShipmentEvent();
+        event.setShipmentId(shipmentId);
+        event.setStatus(ShipmentStatus.IN_TRANSIT);
+        event.setDescription("Picked up");
+        event.setOccurredAt(LocalDateTime.now());
+        return event;
+    }
+
+    private static InventoryItem inventoryItem(int i) {
+        InventoryItem item = new InventoryItem();
+        item.setName("Widget " + i);
+        item.setDescription("Widget number " + i);
+        item.setQuantity(i % 5);
+        item.setMinimumQuantity(2);
+        item.setUnitPrice(BigDecimal.ONE);
+        item.setCategory("Widgets");
+        item.setLocation("A-" + i);
+        item.setSku("SKU-" + i);
+        return item;
+    }
+
+    private static User account(int i) {
+        User user = new User();
+        user.setEmail("user" + i + "@example.com");
+        user.setPassword("secret");
+        user.setFirstName("First" + i);
+        user.setLastName("Last" + i);
+        user.setRoles(Set.of("USER"));
+        user.setPermissions(Set.of("shipments:read"));
+        return user;
+    }
+}
@@ -0,0 +1,14 @@
+package com.logistics.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Endpoint budgets on embedded H2, so they run on every build. Postgres-only endpoints are skipped.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:budget;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class H2EndpointBudgetTest extends AbstractEndpointBudgetTest {
+}
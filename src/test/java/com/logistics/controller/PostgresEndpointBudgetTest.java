@@ -0,0 +1,23 @@
+package com.logistics.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Endpoint budgets against a Flyway-migrated Postgres, including the endpoints whose queries only
+ * run there. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresEndpointBudgetTest extends AbstractEndpointBudgetTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+}
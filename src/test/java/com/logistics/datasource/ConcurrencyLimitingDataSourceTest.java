@@ -0,0 +1,158 @@
+package com.logistics.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * The limiter against a simulated slow database: every connection is held for {@link #QUERY_TIME},
+ * so throughput is bounded by the limit and everything else queues.
+ */
+class ConcurrencyLimitingDataSourceTest {
+
+    private static final Duration QUERY_TIME = Duration.ofMillis(100);
+
+    private final SlowDatabase database = new SlowDatabase();
+
+    @Test
+    void limitDefaultsToThePoolSizeBeforeThePoolStarts() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+
+        try (HikariDataSource unsized = new HikariDataSource(); HikariDataSource sized = new HikariDataSource()) {
+            sized.setMaximumPoolSize(20);
+
+            assertThat(properties.limit(unsized).getMaxConcurrent()).isEqualTo(10);
+            assertThat(properties.limit(sized).getMaxConcurrent()).isEqualTo(20);
+        }
+    }
+
+    @Test
+    void rejectsCallersBeyondTheQueueWithoutWaiting() throws Exception {
+        ConcurrencyLimitingDataSource limiter = new ConcurrencyLimitingDataSource(database, 1, 2, Duration.ofSeconds(30));
+        Connection held = limiter.getConnection();
+        List<Future<?>> queued = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 2; i++) {
+                queued.add(executor.submit(() -> {
+                    limiter.getConnection().close();
+                    return null;
+                }));
+            }
+            await().atMost(Duration.ofSeconds(5)).until(() -> limiter.getWaiting() == 2);
+
+            long start = System.nanoTime();
+            assertThatThrownBy(limiter::getConnection).isInstanceOf(SQLTransientConnectionException.class)
+                    .hasMessageContaining("2 callers already waiting");
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+
+            held.close();
+            for (Future<?> caller : queued) {
+                caller.get(5, TimeUnit.SECONDS);
+            }
+        }
+        assertThat(limiter.getInUse()).isZero();
+        assertThat(limiter.getRejections()).isEqualTo(1);
+    }
+
+    @Test
+    void failsQueuedCallersAfterTheAcquireTimeout() throws Exception {
+        ConcurrencyLimitingDataSource limiter = new ConcurrencyLimitingDataSource(database, 1, 10, Duration.ofMillis(100));
+
+        try (Connection ignored = limiter.getConnection()) {
+            assertThatThrownBy(limiter::getConnection).isInstanceOf(SQLTransientConnectionException.class)
+                    .hasMessageContaining("after 100ms");
+        }
+        assertThat(limiter.getInUse()).isZero();
+    }
+
+    /**
+     * 300 requests against a database that completes 10 queries per 100ms, with health checks
+     * arriving during the backlog. On a 200-thread platform pool, Tomcat's default, every thread
+     * ends up parked on the database and the health checks queue behind the backlog. On virtual
+     * threads they are served at once, which only holds while nothing pins the carrier threads.
+     */
+    @Test
+    void healthChecksStayFastOnVirtualThreadsUnderASlowDatabase() throws Exception {
+        try (ExecutorService platform = Executors.newFixedThreadPool(200)) {
+            assertThat(healthP95UnderLoad(platform)).isGreaterThan(Duration.ofMillis(500));
+        }
+        try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+            assertThat(healthP95UnderLoad(virtual)).isLessThan(Duration.ofMillis(100));
+        }
+    }
+
+    private Duration healthP95UnderLoad(ExecutorService executor) throws Exception {
+        ConcurrencyLimitingDataSource limiter =
+                new ConcurrencyLimitingDataSource(database, 10, 10_000, Duration.ofSeconds(30));
+        AtomicInteger completed = new AtomicInteger();
+        List<Future<?>> requests = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            requests.add(executor.submit(() -> {
+                try (Connection ignored = limiter.getConnection()) {
+                    Thread.sleep(QUERY_TIME.toMillis());
+                }
+                completed.incrementAndGet();
+                return null;
+            }));
+        }
+
+        List<Future<Long>> healthChecks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            long submitted = System.nanoTime();
+            healthChecks.add(executor.submit(() -> System.nanoTime() - submitted));
+            Thread.sleep(10);
+        }
+        List<Long> latencies = new ArrayList<>();
+        for (Future<Long> healthCheck : healthChecks) {
+            latencies.add(healthCheck.get(30, TimeUnit.SECONDS));
+        }
+        for (Future<?> request : requests) {
+            request.get(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(completed).hasValue(300);
+        assertThat(limiter.getInUse()).isZero();
+        assertThat(database.maxOpen).hasValueLessThanOrEqualTo(10);
+        latencies.sort(null);
+        return Duration.ofNanos(latencies.get((int) Math.ceil(latencies.size() * 0.95) - 1));
+    }
+
+    private static final class SlowDatabase extends AbstractDataSource {
+
+        private final AtomicInteger open = new AtomicInteger();
+        private final AtomicInteger maxOpen = new AtomicInteger();
+
+        @Override
+        public Connection getConnection() {
+            maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName())) {
+                            open.decrementAndGet();
+                        }
+                        return null;
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return getConnection();
+        }
+    }
+}
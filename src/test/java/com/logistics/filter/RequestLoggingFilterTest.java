@@ -0,0 +1,64 @@
+package com.logistics.filter;
+
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(OutputCaptureExtension.class)
+class RequestLoggingFilterTest {
+
+    private final LoggingSystem loggingSystem = LoggingSystem.get(getClass().getClassLoader());
+
+    // The test profile raises com.logistics to WARN for the Spring tests that share this JVM
+    @BeforeEach
+    void logRequests() {
+        loggingSystem.setLogLevel(RequestLoggingFilter.class.getName(), LogLevel.INFO);
+    }
+
+    @AfterEach
+    void restoreLogLevel() {
+        loggingSystem.setLogLevel(RequestLoggingFilter.class.getName(), null);
+    }
+
+    @Test
+    void flushesWhatTheChainWroteWhenItThrows() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(new RequestLoggingProperties());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/shipments"), response,
+                (req, res) -> {
+                    res.getWriter().write("partial");
+                    throw new ServletException("handler failed");
+                })).isInstanceOf(ServletException.class);
+
+        assertThat(response.getContentAsString()).isEqualTo("partial");
+    }
+
+    @Test
+    void routeWithoutSamplingKeepsTheBodyOutOfTheLog(CapturedOutput output) throws Exception {
+        RequestLoggingProperties properties = new RequestLoggingProperties();
+        properties.getRoutes().put("/auth/**", 0.0);
+        RequestLoggingFilter filter = new RequestLoggingFilter(properties);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setContentType("application/json");
+        request.setContent("{\"password\": \"hunter22\"}".getBytes(StandardCharsets.UTF_8));
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> req.getInputStream().readAllBytes());
+
+        assertThat(output).contains("REQUEST: POST /auth/login").doesNotContain("hunter22");
+    }
+}
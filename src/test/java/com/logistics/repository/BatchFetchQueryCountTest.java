@@ -0,0 +1,141 @@
+package com.logistics.repository;
+
+import com.logistics.entity.Order;
+import com.logistics.entity.Shipment;
+import com.logistics.entity.ShipmentItem;
+import com.logistics.entity.ShipmentStatus;
+import com.logistics.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loading a page of orders, shipments or users and touching the collections the mappers read must
+ * cost a fixed number of statements, not one per row.
+ */
+@DataJpaTest(showSql = false, properties = "spring.flyway.enabled=false")
+@ActiveProfiles("test")
+class BatchFetchQueryCountTest {
+
+    // More rows than a page, so the count query runs as it does in production
+    private static final int ROWS = 60;
+    private static final PageRequest PAGE = PageRequest.of(0, 50);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < ROWS; i++) {
+            entityManager.persist(order(i));
+            entityManager.persist(shipment(i));
+            entityManager.persist(user(i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void orderPageLoadsItemsInOneBatch() {
+        Page<Order> page = orderRepository.findByStatus(Order.OrderStatus.PENDING, PAGE);
+        page.forEach(order -> assertThat(order.getItems()).hasSize(2));
+
+        // page, count, items
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void shipmentPageLoadsItemsInOneBatch() {
+        Page<Shipment> page = shipmentRepository.findByStatus(ShipmentStatus.IN_TRANSIT, PAGE);
+        page.forEach(shipment -> assertThat(shipment.getItems()).hasSize(2));
+
+        // page, count, items
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void userPageLoadsRolesAndPermissionsInOneBatchEach() {
+        Page<User> page = userRepository.findAll(PAGE);
+        page.forEach(user -> {
+            assertThat(user.getRoles()).containsExactly("USER");
+            assertThat(user.getPermissions()).hasSize(2);
+        });
+
+        // page, count, roles, permissions
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    private static Order order(int i) {
+        Order order = new Order();
+        order.setCustomerId("CUST-" + i);
+        order.setCustomerName("Customer " + i);
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setTotalAmount(BigDecimal.valueOf(20));
+        for (int item = 0; item < 2; item++) {
+            Order.OrderItem orderItem = new Order.OrderItem();
+            orderItem.setProductId("PROD-" + item);
+            orderItem.setProductName("Product " + item);
+            orderItem.setQuantity(1);
+            orderItem.setUnitPrice(BigDecimal.TEN);
+            orderItem.setTotalPrice(BigDecimal.TEN);
+            order.getItems().add(orderItem);
+        }
+        return order;
+    }
+
+    private static Shipment shipment(int i) {
+        Shipment shipment = new Shipment();
+        shipment.setOrderId("ORD-" + i);
+        shipment.setTrackingNumber("TRK-" + i);
+        shipment.setStatus(ShipmentStatus.IN_TRANSIT);
+        shipment.setOriginAddress("Origin " + i);
+        shipment.setDestinationAddress("Destination " + i);
+        shipment.setExpectedDeliveryDate(LocalDateTime.now().plusDays(3));
+        for (int item = 0; item < 2; item++) {
+            ShipmentItem shipmentItem = new ShipmentItem();
+            shipmentItem.setItemId("ITEM-" + item);
+            shipmentItem.setItemName("Item " + item);
+            shipmentItem.setQuantity(1);
+            shipment.addItem(shipmentItem);
+        }
+        return shipment;
+    }
+
+    private static User user(int i) {
+        User user = new User();
+        user.setEmail("user" + i + "@example.com");
+        user.setPassword("secret");
+        user.setFirstName("First" + i);
+        user.setLastName("Last" + i);
+        user.setRoles(Set.of("USER"));
+        user.setPermissions(Set.of("shipments:read", "orders:read"));
+        return user;
+    }
+}
@@ -0,0 +1,192 @@
+package com.logistics.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.entity.Order.OrderStatus;
+import com.logistics.entity.ShipmentStatus;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs each repository query path against a Flyway-migrated Postgres and checks with EXPLAIN that it is
+ * served by the index V3 created for it. Sequential scans are disabled for the EXPLAIN so the check
+ * does not depend on table sizes: a path without a usable index still falls back to a Seq Scan.
+ * Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final List<String> CAPTURED = new CopyOnWriteArrayList<>();
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private ShipmentEventRepository shipmentEventRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @TestConfiguration
+    static class CaptureStatements {
+
+        @Bean
+        HibernatePropertiesCustomizer captureStatements() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                    (StatementInspector) sql -> {
+                        CAPTURED.add(sql);
+                        return sql;
+                    });
+        }
+    }
+
+    @BeforeEach
+    void resetCapture() {
+        CAPTURED.clear();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> queryPathsUseTheirIndexes() {
+        PageRequest page = PageRequest.of(0, 20);
+        return Stream.of(
+                path("shipments.findByOrderId", "idx_shipments_order_id",
+                        () -> shipmentRepository.findByOrderId("ORD-1", page)),
+                path("shipments.existsByOrderId", "idx_shipments_order_id",
+                        () -> shipmentRepository.existsByOrderId("ORD-1")),
+                path("shipments.findByStatus", "idx_shipments_status_created",
+                        () -> shipmentRepository.findByStatus(ShipmentStatus.IN_TRANSIT, page)),
+                path("shipments.findByStatusOrderByCreatedAtDesc", "idx_shipments_status_created",
+                        () -> shipmentRepository.findByStatusOrderByCreatedAtDesc(ShipmentStatus.IN_TRANSIT)),
+                path("shipments.findLatestByStatus", "idx_shipments_status_created",
+                        () -> shipmentRepository.findLatestByStatus(ShipmentStatus.IN_TRANSIT, page)),
+                path("shipments.countByStatus", "idx_shipments_status_created",
+                        () -> shipmentRepository.countByStatus()),
+                path("shipments.findRecentIdsPerStatus", "idx_shipments_status_created",
+                        () -> shipmentRepository.findRecentIdsPerStatus("CREATED,IN_TRANSIT", 10)),
+                path("shipments.findLatest", "idx_shipments_created",
+                        () -> shipmentRepository.findLatest(page)),
+                path("shipments.findOpenDeadlinesBefore", "idx_shipments_expected_delivery",
+                        () -> shipmentRepository.findOpenDeadlinesBefore(LocalDateTime.now(),
+                                Set.of(ShipmentStatus.DELIVERED, ShipmentStatus.CANCELLED))),
+                path("shipments.search", "idx_shipments_tracking_number_trgm",
+                        () -> shipmentRepository.search("TRK", "%TRK%", page)),
+                path("shipment_events.findByShipmentIdOrderByOccurredAtAsc", "idx_shipment_events_shipment_occurred",
+                        () -> shipmentEventRepository.findByShipmentIdOrderByOccurredAtAsc(
+                                "018f0000-0000-7000-8000-000000000000")),
+                path("orders.findByCustomerId", "idx_orders_customer_created",
+                        () -> orderRepository.findByCustomerId("CUST-1", page)),
+                path("orders.findByStatus", "idx_orders_status_created",
+                        () -> orderRepository.findByStatus(OrderStatus.PENDING, page)),
+                path("orders.findByStatusOrderByCreatedAtDesc", "idx_orders_status_created",
+                        () -> orderRepository.findByStatusOrderByCreatedAtDesc(OrderStatus.PENDING)),
+                path("orders.countByStatus", "idx_orders_status_created",
+                        () -> orderRepository.countByStatus()),
+                path("inventory.findLowStockItems", "idx_inventory_low_stock",
+                        () -> inventoryItemRepository.findLowStockItems(page))
+        );
+    }
+
+    private DynamicTest path(String name, String expectedIndex, Runnable query) {
+        return DynamicTest.dynamicTest(name, () -> {
+            CAPTURED.clear();
+            query.run();
+            assertThat(CAPTURED).as("statements issued by %s", name).isNotEmpty();
+
+            for (String sql : CAPTURED) {
+                List<String> scans = new ArrayList<>();
+                collectScans(explain(sql), scans);
+                assertThat(scans).as("plan of %s", sql).noneMatch(scan -> scan.startsWith("Seq Scan"));
+                assertThat(scans).as("plan of %s", sql).anyMatch(scan -> scan.endsWith(" " + expectedIndex));
+            }
+        });
+    }
+
+    /**
+     * Plans the statement without binding values. Runs on its own connection so the session setting does
+     * not leak into the test transaction.
+     */
+    private JsonNode explain(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            try (ResultSet rs = statement.executeQuery(
+                    "EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numberParameters(sql))) {
+                rs.next();
+                return JSON.readTree(rs.getString(1)).get(0).get("Plan");
+            }
+        }
+    }
+
+    /** Flattens the plan tree into "<Node Type> <Index Name>" entries. */
+    private static void collectScans(JsonNode node, List<String> scans) {
+        String type = node.path("Node Type").asText();
+        scans.add(node.has("Index Name") ? type + " " + node.get("Index Name").asText() : type);
+        for (JsonNode child : node.path("Plans")) {
+            collectScans(child, scans);
+        }
+    }
+
+    /** EXPLAIN GENERIC_PLAN takes $n placeholders; JDBC statements use ?. */
+    private static String numberParameters(String sql) {
+        StringBuilder out = new StringBuilder(sql.length() + 16);
+        boolean quoted = false;
+        int n = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                out.append('$').append(++n);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
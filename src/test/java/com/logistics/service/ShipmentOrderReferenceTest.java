@@ -0,0 +1,102 @@
+package com.logistics.service;
+
+import com.logistics.dto.request.CreateShipmentRequest;
+import com.logistics.dto.response.BulkCreateShipmentResponse;
+import com.logistics.dto.response.BulkShipmentResult;
+import com.logistics.entity.Order;
+import com.logistics.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * shipments.order_id is a foreign key to orders: writes that would break it are rejected up front
+ * with a client error instead of failing at commit.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orderref;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@ActiveProfiles("test")
+class ShipmentOrderReferenceTest {
+
+    @Autowired
+    private ShipmentService shipmentService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private String orderId;
+
+    @BeforeEach
+    void setUp() {
+        Order order = new Order();
+        order.setCustomerId("CUST-1");
+        order.setCustomerName("Customer");
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setTotalAmount(BigDecimal.TEN);
+        orderId = orderRepository.save(order).getId();
+    }
+
+    @Test
+    void createRejectsAnUnknownOrder() {
+        String unknown = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> shipmentService.createShipment(create(unknown, "REF-1"), "test"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(unknown);
+    }
+
+    @Test
+    void bulkCreateRejectsOnlyTheItemsWithAnUnknownOrder() {
+        BulkCreateShipmentResponse response = shipmentService.createShipments(List.of(
+                create(orderId.toUpperCase(Locale.ROOT), "REF-2"),
+                create("not-an-order", "REF-3")), "test");
+
+        assertThat(response.getResults()).extracting(BulkShipmentResult::getStatus)
+                .containsExactly(BulkShipmentResult.CREATED, BulkShipmentResult.REJECTED);
+        assertThat(response.getResults().get(1).getError()).isEqualTo("Unknown order: not-an-order");
+    }
+
+    @Test
+    void deletingAnOrderWithShipmentsIsRejected() {
+        shipmentService.createShipment(create(orderId, "REF-4"), "test");
+
+        assertThatThrownBy(() -> orderService.deleteOrder(orderId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("has shipments");
+        assertThat(orderRepository.existsById(orderId)).isTrue();
+    }
+
+    private static CreateShipmentRequest create(String orderId, String trackingNumber) {
+        CreateShipmentRequest request = new CreateShipmentRequest();
+        request.setOrderId(orderId);
+        request.setTrackingNumber(trackingNumber);
+        request.setOriginAddress("Origin");
+        request.setDestinationAddress("Destination");
+        request.setRecipientName("Recipient");
+        request.setExpectedDeliveryDate(LocalDateTime.now().plusDays(3));
+        CreateShipmentRequest.ShipmentItemRequest item = new CreateShipmentRequest.ShipmentItemRequest();
+        item.setItemId("ITEM-1");
+        item.setItemName("Item");
+        item.setQuantity(1);
+        item.setUnitPrice(2.5);
+        request.setItems(List.of(item));
+        return request;
+    }
+}
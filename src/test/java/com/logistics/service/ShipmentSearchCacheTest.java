@@ -0,0 +1,112 @@
+package com.logistics.service;
+
+import com.logistics.dto.ShipmentDTO;
+import com.logistics.dto.request.CreateShipmentRequest;
+import com.logistics.dto.request.UpdateShipmentRequest;
+import com.logistics.entity.Order;
+import com.logistics.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Shipment writes evict only the cached searches the written shipment can match. Uses terms
+ * shorter than a trigram, whose tracking-number prefix path also runs on H2.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:search;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@ActiveProfiles("test")
+class ShipmentSearchCacheTest {
+
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+
+    @Autowired
+    private ShipmentService shipmentService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache searches;
+    private String orderId;
+
+    @BeforeEach
+    void setUp() {
+        searches = cacheManager.getCache("shipmentSearch");
+        searches.clear();
+        Order order = new Order();
+        order.setCustomerId("CUST-1");
+        order.setCustomerName("Customer");
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setTotalAmount(BigDecimal.TEN);
+        orderId = orderRepository.save(order).getId();
+    }
+
+    @Test
+    void shortTermsMatchATrackingNumberPrefix() {
+        shipmentService.createShipment(create("PX-100"), "test");
+
+        assertThat(shipmentService.searchShipments("px", PAGE, "test").getContent())
+                .extracting(ShipmentDTO::getTrackingNumber).contains("PX-100");
+    }
+
+    @Test
+    void creatingAShipmentEvictsOnlyTheSearchesItMatches() {
+        shipmentService.searchShipments("QA", PAGE, "test");
+        shipmentService.searchShipments("QB", PAGE, "test");
+
+        shipmentService.createShipment(create("QA-200"), "test");
+
+        assertThat(searches.get(key("QA"))).isNull();
+        assertThat(searches.get(key("QB"))).isNotNull();
+        assertThat(shipmentService.searchShipments("QA", PAGE, "test").getContent())
+                .extracting(ShipmentDTO::getTrackingNumber).contains("QA-200");
+    }
+
+    @Test
+    void updatingATrackingNumberEvictsTheSearchesItLeavesAndJoins() {
+        String id = shipmentService.createShipment(create("RA-300"), "test").getId();
+        shipmentService.searchShipments("RA", PAGE, "test");
+        shipmentService.searchShipments("RB", PAGE, "test");
+        shipmentService.searchShipments("RC", PAGE, "test");
+
+        UpdateShipmentRequest update = new UpdateShipmentRequest();
+        update.setTrackingNumber("RB-300");
+        shipmentService.updateShipment(id, update, "test");
+
+        assertThat(searches.get(key("RA"))).isNull();
+        assertThat(searches.get(key("RB"))).isNull();
+        assertThat(searches.get(key("RC"))).isNotNull();
+    }
+
+    private static String key(String query) {
+        return query + "-" + PAGE;
+    }
+
+    private CreateShipmentRequest create(String trackingNumber) {
+        CreateShipmentRequest request = new CreateShipmentRequest();
+        request.setOrderId(orderId);
+        request.setTrackingNumber(trackingNumber);
+        request.setOriginAddress("Origin");
+        request.setDestinationAddress("Destination");
+        request.setRecipientName("Recipient");
+        request.setExpectedDeliveryDate(LocalDateTime.now().plusDays(3));
+        return request;
+    }
+}